@@ -2,15 +2,18 @@ package io.github.townyadvanced.flagwar;
 
 import com.palmergames.bukkit.towny.TownyAPI;
 import com.palmergames.bukkit.towny.object.*;
+import io.github.townyadvanced.flagwar.managers.AssociationCache;
 import io.github.townyadvanced.flagwar.managers.BattleManager;
+import io.github.townyadvanced.flagwar.managers.BotRoster;
 import io.github.townyadvanced.flagwar.objects.Battle;
+import io.github.townyadvanced.flagwar.objects.BattleSide;
 import io.github.townyadvanced.flagwar.objects.BattleStage;
 import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
-import town.sheepy.townyAI.TownyAI;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 
 public final class BannerWarAPI {
@@ -58,19 +61,28 @@ public final class BannerWarAPI {
 
         if (townBlock == null) return null;
 
-        for (Battle b : BattleManager.getActiveBattles()) {
-            for (TownBlock other : b.getInitialTownBlocks()) {
-                int x = other.getX();
-                int z = other.getZ();
-                if (x == townBlock.getX() && z == townBlock.getZ()) return b;
-            }
-        }
-
-        return null;
+        return getBattleAt(townBlock.getWorld().getName(), townBlock.getX(), townBlock.getZ());
     }
 
+    /**
+     * Returns the {@link Battle} object that contains the {@link TownBlock} at this {@link WorldCoord} as an initial town block.
+     * @param coord the specified {@link WorldCoord}
+     */
     public static Battle getBattleAt(WorldCoord coord) {
-        return getBattleAt(TownyAPI.getInstance().getTownBlock(coord));
+
+        if (coord == null) return null;
+
+        return getBattleAt(coord.getWorldName(), coord.getX(), coord.getZ());
+    }
+
+    /**
+     * Returns the {@link Battle} object that contains the {@link TownBlock} at these coordinates as an initial town block.
+     * @param worldName the name of the world
+     * @param x the X coordinate of the {@link TownBlock}
+     * @param z the Z coordinate of the {@link TownBlock}
+     */
+    public static Battle getBattleAt(String worldName, int x, int z) {
+        return BattleManager.getBattleAt(worldName, x, z);
     }
 
     /**
@@ -90,7 +102,16 @@ public final class BannerWarAPI {
         if (res == null) return false;
         Town resTown = res.getTownOrNull();
         if (resTown == null) return false;
-        Nation resNation = resTown.getNationOrNull();
+        return isAssociatedNation(resTown.getNationOrNull(), nat);
+    }
+
+    /**
+     * Returns whether the first {@link Nation} is that {@link Nation}, or is allied with it.
+     * This is the single definition of association; see {@link #isAssociatedWithNation(Resident, Nation)}.
+     * @param resNation the {@link Nation} of a resident, or {@code null}
+     * @param nat the {@link Nation}, or {@code null}
+     */
+    public static boolean isAssociatedNation(Nation resNation, Nation nat) {
         if (resNation == null || nat == null) return false;
 
         return nat.hasAlly(resNation) || resNation.equals(nat);
@@ -102,7 +123,7 @@ public final class BannerWarAPI {
      * @param battle the {@link Battle}
      */
     public static boolean isAssociatedWithAttacker(Resident r,  Battle battle) {
-        return isAssociatedWithNation(r, battle.getAttacker());
+        return AssociationCache.getSide(r, battle).isAttacker();
     }
 
     /**
@@ -111,7 +132,7 @@ public final class BannerWarAPI {
      * @param battle the {@link Battle}
      */
     public static boolean isAssociatedWithDefender(Resident r,  Battle battle) {
-        return isAssociatedWithNation(r, battle.getDefender());
+        return AssociationCache.getSide(r, battle).isDefender();
     }
 
     /**
@@ -138,7 +159,16 @@ public final class BannerWarAPI {
      * @param battle the {@link Battle}
      */
     public static boolean isAssociatedWithBattle(Resident r,  Battle battle) {
-        return isAssociatedWithAttacker(r, battle) || isAssociatedWithDefender(r, battle);
+        return AssociationCache.getSide(r, battle).isParticipant();
+    }
+
+    /**
+     * Returns the {@link BattleSide} the {@link Resident} in question is associated with in this {@link Battle}.
+     * @param r the {@link Resident}
+     * @param battle the {@link Battle}
+     */
+    public static BattleSide getSide(Resident r, Battle battle) {
+        return AssociationCache.getSide(r, battle);
     }
 
     /**
@@ -180,13 +210,9 @@ public final class BannerWarAPI {
      * @param battle the battle
      */
     public static CompletableFuture<Collection<Player>> getAssociatedNonBots(Battle battle) {
-
-
-        return CompletableFuture.supplyAsync(() -> {
         Collection<Player> out = getAssociatedPlayers(battle);
-            getAllBots().thenAccept(out::removeAll);
-            return out;
-        });
+        BotRoster.removeBots(out);
+        return CompletableFuture.completedFuture(out);
     }
 
     /**
@@ -197,45 +223,30 @@ public final class BannerWarAPI {
      * @param battle the battle
      */
     public static CompletableFuture<Collection<Player>> getNonAssociatedNonBots(Battle battle) {
-
-        return CompletableFuture.supplyAsync(() -> {
-            Collection<Player> out = getNonAssociatedPlayers(battle);
-
-            getAllBots().thenAccept(out::removeAll);
-            return out;
-        });
+        Collection<Player> out = getNonAssociatedPlayers(battle);
+        BotRoster.removeBots(out);
+        return CompletableFuture.completedFuture(out);
     }
 
     /**
-     * Returns a {@link Collection} of every player that is a TownyAI bot.
+     * Returns a {@link Collection} of every online player that is a TownyAI bot, as cached by the {@link BotRoster}.
      */
     public static CompletableFuture<Collection<Player>> getAllBots() {
+        Collection<Player> out = new ArrayList<>();
 
-        if (Bukkit.getServer().getPluginManager().getPlugin("townyAI") == null) {
-            // JavaPlugin.getProvidingPlugin(FlagWar.class).getLogger().warning("Plugin 'townyAI' does not exist! Returning empty collection!");
-
-
-            return CompletableFuture.completedFuture(new ArrayList<>());
+        for (UUID uuid : BotRoster.getBots()) {
+            Player p = Bukkit.getPlayer(uuid);
+            if (p != null) out.add(p);
         }
 
-            Collection<Player> out = new ArrayList<>();
-            Collection<Resident> residents = new ArrayList<>();
-
-            return TownyAI.getTownyAIAPI().getAllCityStatesAsync().thenApply(cityStates -> {
-
-                for (var cityState : cityStates) {
-                    Town town = TownyAPI.getInstance().getTown(cityState);
-
-                    if (town != null)
-                        residents.addAll(town.getResidents());
-                }
-
-                for (Resident res : residents) {
-                    out.add(res.getPlayer());
-                }
+        return CompletableFuture.completedFuture(out);
+    }
 
-                return out;
-            }
-        );
+    /**
+     * Returns whether the {@link Player} is a TownyAI bot, as cached by the {@link BotRoster}.
+     * @param player the {@link Player}
+     */
+    public static boolean isBot(Player player) {
+        return BotRoster.isBot(player);
     }
 }
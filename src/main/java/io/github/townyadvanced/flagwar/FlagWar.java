@@ -47,11 +47,13 @@ import io.github.townyadvanced.flagwar.events.CellAttackCanceledEvent;
 import io.github.townyadvanced.flagwar.events.CellAttackEvent;
 import io.github.townyadvanced.flagwar.events.CellDefendedEvent;
 import io.github.townyadvanced.flagwar.events.CellWonEvent;
+import io.github.townyadvanced.flagwar.hologram.HologramProviders;
 import io.github.townyadvanced.flagwar.i18n.LocaleUtil;
 import io.github.townyadvanced.flagwar.i18n.Translate;
 import io.github.townyadvanced.flagwar.listeners.*;
 import io.github.townyadvanced.flagwar.managers.BattleClock;
 import io.github.townyadvanced.flagwar.managers.BattleManager;
+import io.github.townyadvanced.flagwar.managers.FlagClock;
 import io.github.townyadvanced.flagwar.managers.WaypointManager;
 import io.github.townyadvanced.flagwar.objects.Cell;
 import io.github.townyadvanced.flagwar.objects.CellUnderAttack;
@@ -63,22 +65,30 @@ import java.math.RoundingMode;
 import java.sql.SQLException;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+import io.github.townyadvanced.flagwar.util.AsyncExecutors;
+import io.github.townyadvanced.flagwar.util.BattleUtil;
 import io.github.townyadvanced.flagwar.util.Broadcasts;
 import io.github.townyadvanced.flagwar.util.CivicsUtil;
+import io.github.townyadvanced.flagwar.util.HologramUpdater;
+import io.github.townyadvanced.flagwar.util.LongObjectMap;
 import io.github.townyadvanced.flagwar.util.Messaging;
 import org.bstats.bukkit.Metrics;
 import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
-import org.bukkit.Location;
 import org.bukkit.Material;
+import org.bukkit.World;
 import org.bukkit.block.Block;
 import org.bukkit.configuration.InvalidConfigurationException;
 import org.bukkit.entity.Player;
@@ -94,12 +104,32 @@ public class FlagWar extends JavaPlugin {
 
     /** Holds the Bukkit {@link PluginManager}. */
     private static final PluginManager PLUGIN_MANAGER = Bukkit.getPluginManager();
-    /** Holds a hashmap of all active {@link CellUnderAttack}. **/
-    private static final Map<Cell, CellUnderAttack> ATTACK_HASH_MAP = new HashMap<>();
-    /** Holds a map of {@link Player}s and a list of {@link CellUnderAttack} flagged by them. */
+    /** Guards every write to the attack indexes, as flags are registered and removed from any region. */
+    private static final Object ATTACK_LOCK = new Object();
+    /**
+     * Holds every active {@link CellUnderAttack}, keyed by {@link Cell#getPackedCoords()}, in a map per
+     * {@link Cell#getWorldIndex()}. Lookups neither allocate a {@link Cell} nor hash a world name.
+     * <p>
+     * The array and its maps are copied on write under {@link #ATTACK_LOCK}, and lookups read a published array
+     * without locking.
+     */
+    @SuppressWarnings("unchecked")
+    private static volatile LongObjectMap<CellUnderAttack>[] attackCellMaps = new LongObjectMap[0];
+    /** Holds the number of active {@link CellUnderAttack}, across every world. Only written under {@link #ATTACK_LOCK}. */
+    private static volatile int activeAttackCount = 0;
+    /** Holds a map of {@link Player}s and a list of {@link CellUnderAttack} flagged by them. Guarded by {@link #ATTACK_LOCK}. */
     private static final Map<String, List<CellUnderAttack>> PLAYER_ATTACK_HASH_MAP = new HashMap<>();
     /** Holds a map of {@link Town}s, and when they were last flagged. */
-    private static final Map<Town, Instant> TOWN_LAST_FLAGGED_HASH_MAP = new HashMap<>();
+    private static final Map<Town, Instant> TOWN_LAST_FLAGGED_HASH_MAP = new ConcurrentHashMap<>();
+    /** Holds a map of {@link Town} UUIDs, and a list of {@link CellUnderAttack} within their claims. Guarded by {@link #ATTACK_LOCK}. */
+    private static final Map<UUID, List<CellUnderAttack>> TOWN_ATTACK_HASH_MAP = new HashMap<>();
+    /**
+     * Holds a map of {@link Nation} UUIDs, and the number of {@link CellUnderAttack} within the claims of their towns.
+     * Guarded by {@link #ATTACK_LOCK}.
+     */
+    private static final Map<UUID, Integer> NATION_ATTACK_COUNT_MAP = new HashMap<>();
+    /** Holds a map of every active {@link Cell} under attack, and the {@link AttackTarget} it is indexed against. Guarded by {@link #ATTACK_LOCK}. */
+    private static final Map<Cell, AttackTarget> ATTACK_TARGET_HASH_MAP = new HashMap<>();
     /** FlagWar Copyright String. */
     private static final String FW_COPYRIGHT = "Copyright © 2021–2023 TownyAdvanced";
     /** Version for storing the minimum required version of Towny, for compatibility. */
@@ -118,6 +148,13 @@ public class FlagWar extends JavaPlugin {
     /** Stores instance of Plugin, for easy operations. */
     private static Plugin plugin;
 
+    /**
+     * Holds the {@link Town} and {@link Nation} owning the claim a {@link CellUnderAttack} was registered in.
+     * @param town the UUID of the attacked Town.
+     * @param nation the UUID of the attacked Town's Nation, or null.
+     */
+    private record AttackTarget(UUID town, UUID nation) { }
+
     /** Stores the Scheduler used in Folia/Non-Folia operations. */
     private final Object scheduler;
 
@@ -137,6 +174,8 @@ public class FlagWar extends JavaPlugin {
     private BoutiqueListener boutiqueListener;
     /** Holds instance of the {@link WearinessListener}. */
     private WearinessListener wearinessListener;
+    /** Holds instance of the {@link HologramProviderListener}. */
+    private HologramProviderListener hologramProviderListener;
     /** Holds instance of the {@link DatabaseManager}. */
     private DatabaseManager databaseManager;
     /** Holds instance of the {@link DatabaseInteraction}. */
@@ -169,6 +208,7 @@ public class FlagWar extends JavaPlugin {
 
             brandingMessage();
             checkTowny();
+            HologramProviders.resolve();
             initializeListeners();
             loadFlagWarMaterials();
             registerEvents();
@@ -192,6 +232,9 @@ public class FlagWar extends JavaPlugin {
             onDisable();
             return false;
         }
+        FlagWarConfig.setAffectedMaterials();
+        BannerWarConfig.loadTimeMultipliers();
+        BannerWarConfig.loadBotRosterTtl();
         return true;
     }
 
@@ -200,20 +243,26 @@ public class FlagWar extends JavaPlugin {
     public void onDisable() {
         FW_LOGGER.log(Level.INFO, () -> Translate.from("shutdown.cancel-all"));
         battleClock.kill();
+        battleManager.shutdown();
         BattleManager.deleteBossBars();
         CivicsUtil.unRegisterCivTechs();
 
+        AsyncExecutors.shutdown();
+
         try {
             databaseManager.shutdown();
         } catch (SQLException ex) {
             ex.printStackTrace();
         }
 
-        if (!ATTACK_HASH_MAP.isEmpty()) {
-            for (CellUnderAttack cell : new ArrayList<>(ATTACK_HASH_MAP.values())) {
+        if (activeAttackCount != 0) {
+            for (CellUnderAttack cell : getCellsUnderAttack()) {
                 attackCanceled(cell);
             }
         }
+        FlagClock.stop();
+        HologramUpdater.stop();
+        HologramProviders.shutdown();
 
         deleteAllWayPoints();
     }
@@ -274,11 +323,13 @@ public class FlagWar extends JavaPlugin {
         PLUGIN_MANAGER.registerEvents(battleListener, this);
         PLUGIN_MANAGER.registerEvents(wearinessListener, this);
         PLUGIN_MANAGER.registerEvents(boutiqueListener, this);
+        PLUGIN_MANAGER.registerEvents(hologramProviderListener, this);
         FW_LOGGER.log(Level.INFO, () -> Translate.from("startup.events.registered"));
     }
 
     /** Initialize Instances. */
     public void initializeInstances() {
+        AsyncExecutors.start();
         waypointManager = new WaypointManager(this);
         databaseManager = new DatabaseManager(this);
         databaseInteraction = new DatabaseInteraction(getLogger(), databaseManager);
@@ -297,6 +348,7 @@ public class FlagWar extends JavaPlugin {
         battleListener = new BattleListener(battleManager);
         wearinessListener = new WearinessListener(this, battleManager);
         boutiqueListener = new BoutiqueListener();
+        hologramProviderListener = new HologramProviderListener();
         FW_LOGGER.log(Level.INFO, () -> Translate.from("startup.listeners.initialized"));
     }
 
@@ -325,25 +377,110 @@ public class FlagWar extends JavaPlugin {
 
     /**
      * Function to register an attack to a player (by running through
-     * {@link #addFlagToPlayerCount(String, CellUnderAttack)}), add it to the {@link #ATTACK_HASH_MAP}, and run
+     * {@link #addFlagToPlayerCount(String, CellUnderAttack)}), add it to the {@link #attackCellMaps}, and run
      * {@link CellUnderAttack#beginAttack()}.
+     * <p>
+     * Flags are registered, won, defended and cancelled on the region of their cell, so the checks and the
+     * bookkeeping run as one step under the {@link #ATTACK_LOCK}; only the flag's own work runs outside it.
      *
      * @param cell CellUnderAttack to process.
      * @throws TownyException if the Player's active flags would become greater than the Maximum per Player.
-     * @throws TownyException if the attackCell is already registered in the {@link #ATTACK_HASH_MAP}.
+     * @throws TownyException if the attackCell is already registered in the {@link #attackCellMaps}.
      */
     public static void registerAttack(final CellUnderAttack cell) throws TownyException {
 
-        CellUnderAttack attackCell = ATTACK_HASH_MAP.get(cell);
         String playerName = cell.getNameOfFlagOwner();
-        checkCellAlreadyRegistered(attackCell);
-        checkPlayerActiveFlagLimit(playerName);
+        synchronized (ATTACK_LOCK) {
+            checkCellAlreadyRegistered(getAttackData(cell));
+            checkPlayerActiveFlagLimit(playerName);
 
-        addFlagToPlayerCount(playerName, cell);
-        ATTACK_HASH_MAP.put(cell, cell);
+            addFlagToPlayerCount(playerName, cell);
+            putAttackCell(cell);
+            addAttackToTarget(cell);
+        }
         cell.beginAttack();
     }
 
+    /**
+     * Indexes the {@link CellUnderAttack} by the {@link Town} and {@link Nation} owning its claim, so that
+     * {@link #isUnderAttack(Town)} and {@link #isUnderAttack(Nation)} do not need to resolve every active flag.
+     *
+     * @param cell CellUnderAttack to index.
+     */
+    private static void addAttackToTarget(final CellUnderAttack cell) {
+        TownBlock tb = TownyAPI.getInstance().getTownBlock(cell.getFlagBaseBlock().getLocation());
+        Town town = tb == null ? null : tb.getTownOrNull();
+        if (town == null) {
+            return;
+        }
+        Nation nation = town.getNationOrNull();
+        var target = new AttackTarget(town.getUUID(), nation == null ? null : nation.getUUID());
+
+        synchronized (ATTACK_LOCK) {
+            ATTACK_TARGET_HASH_MAP.put(cell, target);
+            TOWN_ATTACK_HASH_MAP.computeIfAbsent(target.town(), k -> new ArrayList<>()).add(cell);
+            addNationAttack(target.nation());
+        }
+    }
+
+    /**
+     * Removes the {@link CellUnderAttack} from the indexes populated by {@link #addAttackToTarget(CellUnderAttack)}.
+     *
+     * @param cell CellUnderAttack to remove.
+     */
+    private static void removeAttackFromTarget(final CellUnderAttack cell) {
+        synchronized (ATTACK_LOCK) {
+            AttackTarget target = ATTACK_TARGET_HASH_MAP.remove(cell);
+            if (target == null) {
+                return;
+            }
+            TOWN_ATTACK_HASH_MAP.computeIfPresent(target.town(), (k, cells) -> {
+                cells.remove(cell);
+                return cells.isEmpty() ? null : cells;
+            });
+            removeNationAttack(target.nation());
+        }
+    }
+
+    /**
+     * Re-indexes the active {@link CellUnderAttack}s within the claims of a {@link Town} against its new {@link Nation},
+     * after the town joined or left a nation, so that {@link #isUnderAttack(Nation)} follows the live flags.
+     *
+     * @param town the Town that joined or left a Nation.
+     * @param nation the Nation the Town now belongs to, or null.
+     */
+    public static void reindexAttackTargets(final Town town, final Nation nation) {
+        UUID nationId = nation == null ? null : nation.getUUID();
+
+        synchronized (ATTACK_LOCK) {
+            List<CellUnderAttack> cells = TOWN_ATTACK_HASH_MAP.get(town.getUUID());
+            if (cells == null) {
+                return;
+            }
+            for (CellUnderAttack cell : cells) {
+                AttackTarget target = ATTACK_TARGET_HASH_MAP.get(cell);
+                if (target == null || Objects.equals(target.nation(), nationId)) {
+                    continue;
+                }
+                removeNationAttack(target.nation());
+                addNationAttack(nationId);
+                ATTACK_TARGET_HASH_MAP.put(cell, new AttackTarget(target.town(), nationId));
+            }
+        }
+    }
+
+    private static void addNationAttack(final UUID nation) {
+        if (nation != null) {
+            NATION_ATTACK_COUNT_MAP.merge(nation, 1, Integer::sum);
+        }
+    }
+
+    private static void removeNationAttack(final UUID nation) {
+        if (nation != null) {
+            NATION_ATTACK_COUNT_MAP.computeIfPresent(nation, (k, count) -> count > 1 ? count - 1 : null);
+        }
+    }
+
     private static void checkPlayerActiveFlagLimit(final String playerName) throws TownyException {
         if ((getNumActiveFlags(playerName) + 1) > FlagWarConfig.getMaxActiveFlagsPerPerson()) {
             throw new TownyException(Translate.fromPrefixed("error.flag.max-flags-placed",
@@ -391,59 +528,147 @@ public class FlagWar extends JavaPlugin {
         }
 
         FlagWarConfig.setEditableMaterials();
+        FlagWarConfig.setAffectedMaterials();
     }
 
     static int getNumActiveFlags(final String playerName) {
-        List<CellUnderAttack> activeFlags = PLAYER_ATTACK_HASH_MAP.get(playerName);
-        return activeFlags == null ? 0 : activeFlags.size();
+        synchronized (ATTACK_LOCK) {
+            List<CellUnderAttack> activeFlags = PLAYER_ATTACK_HASH_MAP.get(playerName);
+            return activeFlags == null ? 0 : activeFlags.size();
+        }
     }
 
-    static List<CellUnderAttack> getCellsUnderAttack() {
-        return new ArrayList<>(ATTACK_HASH_MAP.values());
+    /** @return every active {@link CellUnderAttack}, e.g. to redraw their holograms after the hologram provider changed. */
+    public static List<CellUnderAttack> getCellsUnderAttack() {
+        List<CellUnderAttack> cells = new ArrayList<>(activeAttackCount);
+        for (LongObjectMap<CellUnderAttack> map : attackCellMaps) {
+            if (map != null) {
+                map.forEachValue(cells::add);
+            }
+        }
+        return cells;
     }
 
     static List<CellUnderAttack> getCellsUnderAttack(final Town town) {
-        List<CellUnderAttack> cells = new ArrayList<>();
-        for (CellUnderAttack cua : ATTACK_HASH_MAP.values()) {
-            Town townUnderAttack;
-            Location location = cua.getFlagBaseBlock().getLocation();
-            TownBlock tb = TownyAPI.getInstance().getTownBlock(location);
-            if (tb != null && tb.hasTown()) {
-                townUnderAttack = tb.getTownOrNull();
-                if (townUnderAttack == town) {
-                    cells.add(cua);
-                }
-            }
+        synchronized (ATTACK_LOCK) {
+            List<CellUnderAttack> cells = TOWN_ATTACK_HASH_MAP.get(town.getUUID());
+            return cells == null ? new ArrayList<>(0) : new ArrayList<>(cells);
         }
-        return cells;
     }
 
     static boolean isUnderAttack(final Town town) {
-        for (CellUnderAttack cua : ATTACK_HASH_MAP.values()) {
-            Town townUnderAttack;
-            Location location = cua.getFlagBaseBlock().getLocation();
-            TownBlock tb = TownyAPI.getInstance().getTownBlock(location);
-            if (tb != null && tb.hasTown()) {
-                townUnderAttack = tb.getTownOrNull();
-                if (townUnderAttack == town) {
-                    return true;
-                }
-            }
+        synchronized (ATTACK_LOCK) {
+            return TOWN_ATTACK_HASH_MAP.containsKey(town.getUUID());
+        }
+    }
+
+    static boolean isUnderAttack(final Nation nation) {
+        synchronized (ATTACK_LOCK) {
+            return NATION_ATTACK_COUNT_MAP.containsKey(nation.getUUID());
         }
-        return false;
     }
 
     static boolean isUnderAttack(final Cell cell) {
-        return ATTACK_HASH_MAP.containsKey(cell);
+        return getAttackData(cell) != null;
     }
 
     static CellUnderAttack getAttackData(final Cell cell) {
-        return ATTACK_HASH_MAP.get(cell);
+        return getAttackData(cell.getWorldIndex(), cell.getX(), cell.getZ());
+    }
+
+    /**
+     * Allocation-free lookup of the {@link CellUnderAttack} containing a block.
+     * @param world the {@link World} of the block.
+     * @param blockX the x value of the block.
+     * @param blockZ the z value of the block.
+     * @return the CellUnderAttack, or null if the block's cell is not under attack.
+     */
+    static CellUnderAttack getAttackData(final World world, final int blockX, final int blockZ) {
+        if (activeAttackCount == 0 || world == null) {
+            return null;
+        }
+        return getAttackData(Cell.worldIndexOf(world.getName()), Cell.toCellCoord(blockX), Cell.toCellCoord(blockZ));
+    }
+
+    /**
+     * Allocation-free lookup of the {@link CellUnderAttack} at a set of cell (Towny) coordinates.
+     * @param worldName the name of the {@link World} of the cell.
+     * @param cellX the x value of the cell.
+     * @param cellZ the z value of the cell.
+     * @return the CellUnderAttack, or null if the cell is not under attack.
+     */
+    static CellUnderAttack getAttackData(final String worldName, final int cellX, final int cellZ) {
+        if (activeAttackCount == 0) {
+            return null;
+        }
+        return getAttackData(Cell.worldIndexOf(worldName), cellX, cellZ);
+    }
+
+    private static CellUnderAttack getAttackData(final int worldIndex, final int cellX, final int cellZ) {
+        LongObjectMap<CellUnderAttack> map = getAttackCellMap(worldIndex);
+        return map == null ? null : map.get(BattleUtil.pack(cellX, cellZ));
+    }
+
+    /**
+     * Returns the published map of the {@link CellUnderAttack}s of a world, which is never modified once published.
+     * @param worldIndex the {@link Cell#getWorldIndex()} of the world.
+     * @return the map, or null if the world has never had a flag.
+     */
+    private static LongObjectMap<CellUnderAttack> getAttackCellMap(final int worldIndex) {
+        LongObjectMap<CellUnderAttack>[] maps = attackCellMaps;
+        return worldIndex >= 0 && worldIndex < maps.length ? maps[worldIndex] : null;
+    }
+
+    /**
+     * Publishes a copy of the {@link #attackCellMaps} with the {@link CellUnderAttack} added.
+     * @param cell CellUnderAttack to add.
+     */
+    private static void putAttackCell(final CellUnderAttack cell) {
+        int worldIndex = cell.getWorldIndex();
+        if (worldIndex < 0) {
+            return;
+        }
+        synchronized (ATTACK_LOCK) {
+            LongObjectMap<CellUnderAttack>[] maps = attackCellMaps;
+            LongObjectMap<CellUnderAttack>[] copy = Arrays.copyOf(maps, Math.max(maps.length, worldIndex + 1));
+            LongObjectMap<CellUnderAttack> map = copy[worldIndex] == null
+                ? new LongObjectMap<>() : new LongObjectMap<>(copy[worldIndex]);
+
+            if (map.put(cell.getPackedCoords(), cell) == null) {
+                activeAttackCount++;
+            }
+            copy[worldIndex] = map;
+            attackCellMaps = copy;
+        }
+    }
+
+    /**
+     * Publishes a copy of the {@link #attackCellMaps} without the {@link CellUnderAttack}.
+     * @param cell CellUnderAttack to remove.
+     */
+    private static void removeAttackCell(final CellUnderAttack cell) {
+        synchronized (ATTACK_LOCK) {
+            LongObjectMap<CellUnderAttack>[] maps = attackCellMaps;
+            LongObjectMap<CellUnderAttack> current = getAttackCellMap(cell.getWorldIndex());
+            if (current == null || current.get(cell.getPackedCoords()) != cell) {
+                return;
+            }
+            var map = new LongObjectMap<>(current);
+            map.remove(cell.getPackedCoords());
+
+            LongObjectMap<CellUnderAttack>[] copy = maps.clone();
+            copy[cell.getWorldIndex()] = map;
+            attackCellMaps = copy;
+            activeAttackCount--;
+        }
     }
 
     static void removeCellUnderAttack(final CellUnderAttack cell) {
-        removeFlagFromPlayerCount(cell.getNameOfFlagOwner(), cell);
-        ATTACK_HASH_MAP.remove(cell);
+        synchronized (ATTACK_LOCK) {
+            removeFlagFromPlayerCount(cell.getNameOfFlagOwner(), cell);
+            removeAttackCell(cell);
+            removeAttackFromTarget(cell);
+        }
     }
 
     public static void attackWon(final CellUnderAttack cell) {
@@ -472,20 +697,20 @@ public class FlagWar extends JavaPlugin {
      * @param playerName name of a {@link Player}, used as key when looking up CellUnderAttack to cancel.
      */
     public static void removeAttackerFlags(final String playerName) {
-        List<CellUnderAttack> cells = PLAYER_ATTACK_HASH_MAP.get(playerName);
-        if (cells != null) {
-            for (CellUnderAttack cell : cells) {
-                attackCanceled(cell);
-            }
+        // a snapshot, as cancelling a flag removes it from the player's list.
+        for (CellUnderAttack cell : getCellsUnderAttackByPlayer(playerName)) {
+            attackCanceled(cell);
         }
     }
 
     public static List<CellUnderAttack> getCellsUnderAttackByPlayer(final String playerName) {
-        List<CellUnderAttack> cells = PLAYER_ATTACK_HASH_MAP.get(playerName);
-        if (cells == null) {
-            return new ArrayList<>(0);
-        } else {
-            return new ArrayList<>(cells);
+        synchronized (ATTACK_LOCK) {
+            List<CellUnderAttack> cells = PLAYER_ATTACK_HASH_MAP.get(playerName);
+            if (cells == null) {
+                return new ArrayList<>(0);
+            } else {
+                return new ArrayList<>(cells);
+            }
         }
     }
 
@@ -523,24 +748,106 @@ public class FlagWar extends JavaPlugin {
      * @param event an event being evaluated for cancellation.
      */
     public static void checkBlock(final Player player, final Block block, final Cancellable event) {
+        // Nothing can be defended or protected while no flag is up.
+        if (activeAttackCount == 0) {
+            return;
+        }
         if (FlagWarConfig.isAffectedMaterial(block.getType())) {
-            var cell = Cell.parse(block.getLocation());
-            if (cell != null && cell.isUnderAttack()) {
-                CellUnderAttack cellAttackData = cell.getAttackData();
-                if (cellAttackData.isFlagTimer(block)) {
-                    if (cellAttackData.decrementLife() == 0) {
-                        FlagWar.attackDefended(player, cellAttackData);
-                    }
+            CellUnderAttack cellAttackData = getAttackData(block.getWorld(), block.getX(), block.getZ());
+            if (cellAttackData != null) {
+                checkBlock(player, block, cellAttackData, event);
+            }
+        }
+    }
 
-                    else Broadcasts.sendMessage(player, ChatColor.AQUA + "You have removed a life! Only " + cellAttackData.getLives() + " more to win this attack!");
+    /**
+     * Evaluate a batch of {@link Block}s, as {@link #checkBlock(Player, Block, Cancellable)} would, but with the
+     * blocks grouped by {@link Cell} first, so the attack data is only resolved once per Cell.
+     *
+     * @param player player to be registered as the attack defender.
+     * @param blocks Blocks to evaluate, e.g. the blocks of an explosion or a piston move.
+     * @param event an event being evaluated for cancellation.
+     */
+    public static void checkBlocks(final Player player, final Collection<Block> blocks, final Cancellable event) {
+        for (Map.Entry<CellUnderAttack, List<Block>> group : groupByCellUnderAttack(blocks).entrySet()) {
+            CellUnderAttack cellAttackData = group.getKey();
+            for (Block block : group.getValue()) {
+                if (FlagWarConfig.isAffectedMaterial(block.getType())
+                    && checkBlock(player, block, cellAttackData, event)) {
+                    // The attack was defended, so the rest of the Cell is no longer under attack.
+                    break;
+                }
+            }
+        }
+    }
 
-                    event.setCancelled(true);
+    /**
+     * Groups {@link Block}s by the {@link CellUnderAttack} containing them, resolving each Cell once per run of
+     * blocks. Blocks outside any Cell under attack are left out.
+     *
+     * @param blocks Blocks to group.
+     * @return the Blocks of every CellUnderAttack, in encounter order.
+     */
+    public static Map<CellUnderAttack, List<Block>> groupByCellUnderAttack(final Collection<Block> blocks) {
+        Map<CellUnderAttack, List<Block>> groups = new LinkedHashMap<>();
+        if (activeAttackCount == 0 || blocks.isEmpty()) {
+            return groups;
+        }
 
-                } else if (cellAttackData.isImmutableBlock(block)) {
-                    event.setCancelled(true);
-                }
+        World lastWorld = null;
+        LongObjectMap<CellUnderAttack> worldAttacks = null;
+        long lastKey = 0;
+        CellUnderAttack lastCell = null;
+        List<Block> lastGroup = null;
+        boolean resolved = false;
+
+        for (Block block : blocks) {
+            World world = block.getWorld();
+            if (world != lastWorld) {
+                lastWorld = world;
+                worldAttacks = getAttackCellMap(Cell.worldIndexOf(world.getName()));
+                resolved = false;
             }
+            if (worldAttacks == null) {
+                continue;
+            }
+
+            long key = BattleUtil.pack(Cell.toCellCoord(block.getX()), Cell.toCellCoord(block.getZ()));
+            if (!resolved || key != lastKey) {
+                lastKey = key;
+                lastCell = worldAttacks.get(key);
+                lastGroup = lastCell == null ? null : groups.computeIfAbsent(lastCell, k -> new ArrayList<>());
+                resolved = true;
+            }
+            if (lastGroup != null) {
+                lastGroup.add(block);
+            }
+        }
+        return groups;
+    }
+
+    /**
+     * Evaluate a {@link Block} already known to be within a {@link CellUnderAttack}.
+     *
+     * @return true if the attack was defended.
+     */
+    private static boolean checkBlock(final Player player, final Block block, final CellUnderAttack cellAttackData,
+                                      final Cancellable event) {
+        if (cellAttackData.isFlagTimer(block)) {
+            boolean defended = cellAttackData.decrementLife() == 0;
+            if (defended) {
+                FlagWar.attackDefended(player, cellAttackData);
+            }
+
+            else Broadcasts.sendMessage(player, ChatColor.AQUA + "You have removed a life! Only " + cellAttackData.getLives() + " more to win this attack!");
+
+            event.setCancelled(true);
+            return defended;
+
+        } else if (cellAttackData.isImmutableBlock(block)) {
+            event.setCancelled(true);
         }
+        return false;
     }
 
     /**
@@ -633,12 +940,12 @@ public class FlagWar extends JavaPlugin {
 
         String finalCoordinates = coordinates;
 
-        Bukkit.getScheduler().runTaskLater(plugin, () -> {
+        getFlagWar().getScheduler().runLater(() -> {
             if (!getCellsUnderAttackByPlayer(player.getName()).isEmpty())
                 TownyMessaging.sendGlobalMessage(Translate.fromPrefixed("broadcast.area.under_attack",
                     landOwnerTown.getFormattedName(), finalCoordinates, attackingResident.getFormattedName()));
 
-            },  delay);
+            },  Math.max(1L, delay));
 
         return true;
     }
@@ -891,10 +1198,7 @@ public class FlagWar extends JavaPlugin {
      * @return An Instant which the town was last flagged. Otherwise, returns the value of {@link Instant#MAX}.
      */
     static Instant lastFlagged(final Town town) {
-        if (TOWN_LAST_FLAGGED_HASH_MAP.containsKey(town)) {
-            return TOWN_LAST_FLAGGED_HASH_MAP.get(town);
-        }
-        return Instant.MAX;
+        return TOWN_LAST_FLAGGED_HASH_MAP.getOrDefault(town, Instant.MAX);
     }
 
     /**
@@ -902,11 +1206,7 @@ public class FlagWar extends JavaPlugin {
      * @param town the Town to update the last-flagged entry for.
      */
     public static void townFlagged(final Town town) {
-        if (TOWN_LAST_FLAGGED_HASH_MAP.containsKey(town)) {
-            TOWN_LAST_FLAGGED_HASH_MAP.replace(town, Instant.now());
-        } else {
-            TOWN_LAST_FLAGGED_HASH_MAP.put(town, Instant.now());
-        }
+        TOWN_LAST_FLAGGED_HASH_MAP.put(town, Instant.now());
     }
 
     /**
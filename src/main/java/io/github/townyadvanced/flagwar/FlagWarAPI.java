@@ -19,11 +19,14 @@ package io.github.townyadvanced.flagwar;
 
 import com.palmergames.bukkit.towny.object.Nation;
 import com.palmergames.bukkit.towny.object.Town;
+import com.palmergames.bukkit.towny.object.WorldCoord;
 import io.github.townyadvanced.flagwar.objects.Cell;
 import io.github.townyadvanced.flagwar.objects.CellUnderAttack;
 
 import java.time.Instant;
 import java.util.List;
+import org.bukkit.Location;
+import org.bukkit.World;
 import org.bukkit.entity.Player;
 
 /**
@@ -46,6 +49,35 @@ public final class FlagWarAPI {
         return FlagWar.isUnderAttack(cell);
     }
 
+    /**
+     * Check if the cell containing a given block is a {@link CellUnderAttack}, without allocating a {@link Cell}.
+     * @param world The World of the block.
+     * @param blockX The x value of the block.
+     * @param blockZ The z value of the block.
+     * @return True or False
+     */
+    public static boolean isUnderAttack(final World world, final int blockX, final int blockZ) {
+        return FlagWar.getAttackData(world, blockX, blockZ) != null;
+    }
+
+    /**
+     * Check if the cell containing a given {@link Location} is a {@link CellUnderAttack}.
+     * @param location The given Location
+     * @return True or False
+     */
+    public static boolean isUnderAttack(final Location location) {
+        return getAttackData(location) != null;
+    }
+
+    /**
+     * Check if a given Towny {@link WorldCoord} is a {@link CellUnderAttack}.
+     * @param worldCoord The given WorldCoord
+     * @return True or False
+     */
+    public static boolean isUnderAttack(final WorldCoord worldCoord) {
+        return FlagWar.getAttackData(worldCoord.getWorldName(), worldCoord.getX(), worldCoord.getZ()) != null;
+    }
+
     /**
      * Check if a Town has any active flag war cells.
      * @param town Target Town to check.
@@ -56,18 +88,13 @@ public final class FlagWarAPI {
     }
 
     /**
-     * Check if a {@link Nation} is under attack by iterating over each of its member Towns.
+     * Check if a {@link Nation} is under attack in any of its member Towns.
+     * Flags follow their Town when it joins or leaves a Nation.
      * @param nation Target Nation to check.
      * @return True if there is a {@link CellUnderAttack} in any of the supplied Nation's towns.
      */
     public static boolean isUnderAttack(final Nation nation) {
-        boolean nationUnderAttack = false;
-        for (Town town : nation.getTowns()) {
-            if (FlagWarAPI.isUnderAttack(town)) {
-                nationUnderAttack = true;
-            }
-        }
-        return nationUnderAttack;
+        return FlagWar.isUnderAttack(nation);
     }
 
     /**
@@ -123,6 +150,26 @@ public final class FlagWarAPI {
         return FlagWar.getAttackData(cell);
     }
 
+    /**
+     * Gets the {@link CellUnderAttack} containing a given block, without allocating a {@link Cell}.
+     * @param world The World of the block.
+     * @param blockX The x value of the block.
+     * @param blockZ The z value of the block.
+     * @return The CellUnderAttack, or null if the block's cell is not under attack.
+     */
+    public static CellUnderAttack getAttackData(final World world, final int blockX, final int blockZ) {
+        return FlagWar.getAttackData(world, blockX, blockZ);
+    }
+
+    /**
+     * Gets the {@link CellUnderAttack} containing a given {@link Location}.
+     * @param location The given Location.
+     * @return The CellUnderAttack, or null if the Location's cell is not under attack.
+     */
+    public static CellUnderAttack getAttackData(final Location location) {
+        return FlagWar.getAttackData(location.getWorld(), location.getBlockX(), location.getBlockZ());
+    }
+
     /**
      * Get the Instant for when a {@link Town} was last flagged.
      * @param town Target Town.
@@ -1,5 +1,8 @@
 package io.github.townyadvanced.flagwar.command;
 
+import io.github.townyadvanced.flagwar.config.BannerWarConfig;
+import io.github.townyadvanced.flagwar.config.FlagWarConfig;
+import io.github.townyadvanced.flagwar.hologram.HologramProviders;
 import io.github.townyadvanced.flagwar.util.Broadcasts;
 import org.bukkit.ChatColor;
 import org.bukkit.command.Command;
@@ -28,6 +31,10 @@ public class ReloadConfig implements CommandExecutor {
             else {
                 try {
                     plugin.reloadConfig();
+                    FlagWarConfig.setAffectedMaterials();
+                    BannerWarConfig.loadTimeMultipliers();
+                    BannerWarConfig.loadBotRosterTtl();
+                    HologramProviders.resolve();
                     Broadcasts.sendMessageNoFilter(p, "Config reload successful!", ChatColor.GREEN);
                 } catch (Exception e) {
                     Broadcasts.sendErrorMessageNoFilter(p, "Failed to reload config! " + e.getMessage());
@@ -36,6 +43,10 @@ public class ReloadConfig implements CommandExecutor {
         } else if (commandSender instanceof ConsoleCommandSender) {
             try {
                 plugin.reloadConfig();
+                FlagWarConfig.setAffectedMaterials();
+                BannerWarConfig.loadTimeMultipliers();
+                BannerWarConfig.loadBotRosterTtl();
+                HologramProviders.resolve();
                 plugin.getLogger().info("Config reload successful!");
             } catch (Exception e) {
                 e.printStackTrace();
@@ -23,6 +23,12 @@ public class BannerWarConfig {
     /** Holds an instance of FlagWar's logger. */
     private static final Logger LOGGER = PLUGIN.getLogger();
 
+    /** Holds the timing multiplier of every {@link BattleStage}, by ordinal, or {@code null} until {@link #loadTimeMultipliers()}. */
+    private static double[] timeMultipliers = null;
+
+    /** Holds the TTL of the {@link io.github.townyadvanced.flagwar.managers.BotRoster}, in seconds, or -1 until {@link #loadBotRosterTtl()}. */
+    private static volatile int botRosterTtlSeconds = -1;
+
     public static long getCurrentTownyDay() {
         return PLUGIN.getConfig().getLong("universe.current_day");
     }
@@ -44,6 +50,41 @@ public class BannerWarConfig {
         return PLUGIN.getConfig().getInt("clock.cycle_speed");
     }
 
+    public static double getTickBudgetMillis() {
+        return PLUGIN.getConfig().getDouble("clock.tick_budget_ms", 2.0);
+    }
+
+    public static int getBossBarUpdateTicks() {
+        return PLUGIN.getConfig().getInt("clock.boss_bar_update_ticks", 20);
+    }
+
+    public static int getBotRosterTtlSeconds() {
+        int ttl = botRosterTtlSeconds;
+        return ttl < 0 ? loadBotRosterTtl() : ttl;
+    }
+
+    /**
+     * Reads the TTL of the bot roster from the config into the cache read by {@link #getBotRosterTtlSeconds()}.
+     * Must be called again whenever the config is reloaded.
+     */
+    public static int loadBotRosterTtl() {
+        int ttl = Math.max(0, PLUGIN.getConfig().getInt("clock.bot_roster_ttl", 60));
+        botRosterTtlSeconds = ttl;
+        return ttl;
+    }
+
+    public static boolean isVirtualThreadsEnabled() {
+        return PLUGIN.getConfig().getBoolean("executors.virtual_threads", false);
+    }
+
+    public static int getExecutorThreads(String executor, int def) {
+        return PLUGIN.getConfig().getInt("executors." + executor + ".threads", def);
+    }
+
+    public static int getExecutorQueueSize(String executor, int def) {
+        return PLUGIN.getConfig().getInt("executors." + executor + ".queue_size", def);
+    }
+
     /**
      * Returns the {@link Material} parsed from the string at the plugin's YAML configuration file.
      * @param dir the directory where the {@link Material} resides
@@ -198,14 +239,33 @@ public class BannerWarConfig {
     }
 
     public static double getTimeMultiplier(BattleStage stage) {
-        double out = PLUGIN.getConfig().getDouble("battle.timing_multipliers." + stage.name().toLowerCase(Locale.ROOT));
+        double[] multipliers = timeMultipliers;
+        if (multipliers == null) multipliers = loadTimeMultipliers();
+        return multipliers[stage.ordinal()];
+    }
 
-        if (out <= 0) {
-            LOGGER.warning("Configured multiplier " + out + " for battle stage " + stage.name() + " not suitable! Returning 1.0 instead.");
-            return 1.0;
+    /**
+     * Reads the timing multiplier of every {@link BattleStage} from the config into the cache read by {@link #getTimeMultiplier(BattleStage)}.
+     * Must be called again whenever the config is reloaded.
+     */
+    public static double[] loadTimeMultipliers() {
+        double[] multipliers = new double[BattleStage.values().length];
+
+        for (BattleStage stage : BattleStage.values()) {
+            double out = PLUGIN.getConfig().getDouble("battle.timing_multipliers." + stage.name().toLowerCase(Locale.ROOT));
+
+            if (out <= 0) {
+                // END has no duration, so it has no multiplier to warn about.
+                if (stage != BattleStage.END)
+                    LOGGER.warning("Configured multiplier " + out + " for battle stage " + stage.name() + " not suitable! Using 1.0 instead.");
+                out = 1.0;
+            }
+
+            multipliers[stage.ordinal()] = out;
         }
 
-        return out;
+        timeMultipliers = multipliers;
+        return multipliers;
     }
 
     public static Material getInvincibilityMaterial() {
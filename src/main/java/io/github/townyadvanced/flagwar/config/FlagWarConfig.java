@@ -61,6 +61,8 @@ public final class FlagWarConfig {
     private static Material beaconWireFrameMaterial = null;
     /** Set of EditableMaterials which can be built/destroyed in attacked cells. */
     private static Set<Material> editableMaterialsInWarZone = null;
+    /** Holds, by {@link Material#ordinal()}, whether a Material is affected, see {@link #setAffectedMaterials()}. */
+    private static boolean[] affectedMaterials = new boolean[0];
     /** Index to know which hologram line contains the timer string. */
     private static int hologramTimerLineIndex;
     /** {@link Plugin} instance, used internally. */
@@ -97,11 +99,31 @@ public final class FlagWarConfig {
      * the material is one of the timer materials.
      */
     public static boolean isAffectedMaterial(final Material material) {
-        return Arrays.asList(TIMER_MATERIALS).contains(material)
-            || material == getFlagBaseMaterial()
-            || material == getFlagLightMaterial()
-            || material == getBeaconWireFrameMaterial()
-            || material == BannerWarConfig.getInfernalWarFlagMaterial();
+        boolean[] affected = affectedMaterials;
+        return material != null && material.ordinal() < affected.length && affected[material.ordinal()];
+    }
+
+    /**
+     * Rebuilds the table read by {@link #isAffectedMaterial(Material)} from the timer materials, the war flag's base
+     * and light, the beacon wireframe, and the infernal war flag material. Must be called again whenever any of
+     * those change, e.g. on config reload.
+     */
+    public static void setAffectedMaterials() {
+        var affected = new boolean[Material.values().length];
+        for (Material material : TIMER_MATERIALS) {
+            markAffected(affected, material);
+        }
+        markAffected(affected, getFlagBaseMaterial());
+        markAffected(affected, getFlagLightMaterial());
+        markAffected(affected, getBeaconWireFrameMaterial());
+        markAffected(affected, BannerWarConfig.getInfernalWarFlagMaterial());
+        affectedMaterials = affected;
+    }
+
+    private static void markAffected(final boolean[] affected, final Material material) {
+        if (material != null) {
+            affected[material.ordinal()] = true;
+        }
     }
 
     /**
@@ -186,21 +208,12 @@ public final class FlagWarConfig {
     }
 
     /**
-     * Check if holograms are enabled in the config, and if a provider is present.
-     * If holograms are enabled, but a provider is missing, log an error and return false.
-     * @return True if both conditions are true.
+     * Check if holograms are enabled in the config. Whether a provider is present is resolved separately, and may
+     * change while the server runs; see {@link io.github.townyadvanced.flagwar.hologram.HologramProviders}.
+     * @return True if holograms are enabled.
      */
     private static boolean isHologramConfigured() {
-        if (PLUGIN.getConfig().getBoolean("holograms.enabled")) {
-            if (PLUGIN.getServer().getPluginManager().isPluginEnabled("DecentHolograms")) {
-                return true;
-            } else {
-                LOGGER.severe("Could not find a hologram provider. Holograms will be disabled.");
-                return false;
-            }
-        } else {
-            return false;
-        }
+        return PLUGIN.getConfig().getBoolean("holograms.enabled");
     }
 
     /** @return {@link #isHologramEnabled}, the cached result of {@link #isHologramConfigured()}. */
@@ -337,6 +350,22 @@ public final class FlagWarConfig {
         return hasTimerLine;
     }
 
+    /**
+     * Query the preferred hologram provider.
+     * @return Output of holograms.provider, either "display" or "decentholograms".
+     */
+    public static String getHologramProvider() {
+        return PLUGIN.getConfig().getString("holograms.provider", "display");
+    }
+
+    /**
+     * Query the distance within which players see the holograms drawn with display entities.
+     * @return Output of holograms.view_range, in blocks.
+     */
+    public static double getHologramViewRange() {
+        return Math.max(1.0, PLUGIN.getConfig().getDouble("holograms.view_range", 48.0));
+    }
+
     /**
      * Check if attacks are allowed or not, as set in the configuration file.
      * @return True if rules.allow_attacks is set to true in the configuration file.
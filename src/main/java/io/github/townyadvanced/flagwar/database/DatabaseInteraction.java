@@ -4,6 +4,7 @@ import com.palmergames.bukkit.towny.TownyAPI;
 import io.github.townyadvanced.flagwar.objects.BannerPlacerRecord;
 import io.github.townyadvanced.flagwar.objects.BattleRecord;
 import io.github.townyadvanced.flagwar.objects.BattleStage;
+import io.github.townyadvanced.flagwar.util.AsyncExecutors;
 import io.github.townyadvanced.flagwar.util.BattleUtil;
 
 import java.sql.PreparedStatement;
@@ -34,7 +35,7 @@ public final class DatabaseInteraction {
 
     public CompletableFuture<Collection<BattleRecord>> getBattles() {
 
-        return CompletableFuture.supplyAsync(() -> {
+        return AsyncExecutors.database().supply(() -> {
             Collection<BattleRecord> battles = new ArrayList<>();
             String query = "SELECT * FROM " + BATTLE_TABLE;
             try (PreparedStatement ps = MANAGER.getConnection().prepareStatement(query)) {
@@ -65,7 +66,7 @@ public final class DatabaseInteraction {
 
     public CompletableFuture<Void> insertBattle(BattleRecord r) {
 
-        return CompletableFuture.runAsync(() -> {
+        return AsyncExecutors.database().run(() -> {
             String query = "INSERT INTO " + BATTLE_TABLE + " VALUES(?,?,?,?,?,?,?,?,?,?,?)";
             try (PreparedStatement ps = MANAGER.getConnection().prepareStatement(query)) {
 
@@ -93,7 +94,7 @@ public final class DatabaseInteraction {
     }
 
     public CompletableFuture<Void> insertOrUpdate(BattleRecord r) {
-        return CompletableFuture.runAsync(() -> {
+        return AsyncExecutors.database().run(() -> {
             String query = "INSERT OR REPLACE INTO " + BATTLE_TABLE + " VALUES(?,?,?,?,?,?,?,?,?,?,?)";
             try (PreparedStatement ps = MANAGER.getConnection().prepareStatement(query)) {
 
@@ -119,7 +120,7 @@ public final class DatabaseInteraction {
     }
 
     public CompletableFuture<Void> deleteBattle(String contestedTown) {
-        return CompletableFuture.runAsync(() -> {
+        return AsyncExecutors.database().run(() -> {
             String query = "DELETE FROM " + BATTLE_TABLE + " WHERE ContestedTown = ?";
             try(PreparedStatement ps = MANAGER.getConnection().prepareStatement(query)) {
                 ps.setString(1, contestedTown);
@@ -132,7 +133,7 @@ public final class DatabaseInteraction {
     }
 
     public CompletableFuture<Void> reset() {
-        return CompletableFuture.runAsync(() -> {
+        return AsyncExecutors.database().run(() -> {
             String query = "DELETE FROM  " + BATTLE_TABLE;
             try (PreparedStatement ps = MANAGER.getConnection().prepareStatement(query)) {
                 ps.executeUpdate();
@@ -144,7 +145,7 @@ public final class DatabaseInteraction {
 
     public CompletableFuture<Collection<BannerPlacerRecord>> getBannerPlacers() {
 
-        return CompletableFuture.supplyAsync(() -> {
+        return AsyncExecutors.database().supply(() -> {
             Collection<BannerPlacerRecord> placers = new ArrayList<>();
             String query = "SELECT * FROM " + BANNER_PLACER_TABLE;
             try (PreparedStatement ps = MANAGER.getConnection().prepareStatement(query)) {
@@ -167,7 +168,7 @@ public final class DatabaseInteraction {
     }
 
     public CompletableFuture<Void> insertOrUpdate(BannerPlacerRecord r) {
-        return CompletableFuture.runAsync(() -> {
+        return AsyncExecutors.database().run(() -> {
             String query = "INSERT OR REPLACE INTO " + BANNER_PLACER_TABLE + " VALUES(?,?)";
             try (PreparedStatement ps = MANAGER.getConnection().prepareStatement(query)) {
 
@@ -0,0 +1,72 @@
+package io.github.townyadvanced.flagwar.hologram;
+
+import eu.decentsoftware.holograms.api.DHAPI;
+import eu.decentsoftware.holograms.api.holograms.Hologram;
+import io.github.townyadvanced.flagwar.util.FormatUtil;
+import io.github.townyadvanced.flagwar.util.Messaging;
+import org.bukkit.Location;
+import org.bukkit.Material;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+/** A {@link HologramProvider} backed by DecentHolograms ({@link DHAPI}). */
+public final class DecentHologramsProvider implements HologramProvider {
+
+    /** Holds the name of the DecentHolograms plugin. */
+    public static final String PLUGIN_NAME = "DecentHolograms";
+
+    @Override
+    public String getName() {
+        return PLUGIN_NAME;
+    }
+
+    @Override
+    public void draw(String name, Location location, List<Map.Entry<String, String>> lines, Duration lifeTime) {
+
+        // a hologram under the same name is stale, e.g. left over by a flag that was never cleaned up.
+        Hologram stale = DHAPI.getHologram(name);
+        if (stale != null) {
+            Messaging.debug("Destroying a pre-existing hologram at: %s", name);
+            stale.destroy();
+        }
+
+        // Create Invisible
+        Hologram hologram = DHAPI.createHologram(name, location, false);
+        hologram.setDefaultVisibleState(false);
+
+        // Add Lines
+        for (Map.Entry<String, String> line : lines) {
+            String type = line.getKey();
+            String data = line.getValue();
+
+            switch (type) {
+                case "item" -> {
+                    Material material = Material.matchMaterial(data);
+                    if (material != null) {
+                        DHAPI.addHologramLine(hologram, material);
+                    }
+                }
+                case "text" -> DHAPI.addHologramLine(hologram, data);
+                case "timer" -> DHAPI.addHologramLine(hologram, FormatUtil.time(lifeTime, data));
+                default -> DHAPI.addHologramLine(hologram, "");
+            }
+        }
+
+        //Set Visible
+        hologram.setDefaultVisibleState(true);
+    }
+
+    @Override
+    public void setLine(String name, int index, String text) {
+        Hologram hologram = DHAPI.getHologram(name);
+        if (hologram != null) DHAPI.setHologramLine(hologram, index, text);
+    }
+
+    @Override
+    public void destroy(String name) {
+        Hologram hologram = DHAPI.getHologram(name);
+        if (hologram != null) hologram.destroy();
+    }
+}
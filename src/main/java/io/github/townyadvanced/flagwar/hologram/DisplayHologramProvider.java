@@ -0,0 +1,287 @@
+package io.github.townyadvanced.flagwar.hologram;
+
+import com.palmergames.bukkit.towny.scheduling.ScheduledTask;
+import com.palmergames.bukkit.towny.scheduling.TaskScheduler;
+import io.github.townyadvanced.flagwar.FlagWar;
+import io.github.townyadvanced.flagwar.util.FormatUtil;
+import io.github.townyadvanced.flagwar.util.Messaging;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.serializer.legacy.LegacyComponentSerializer;
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.entity.Display;
+import org.bukkit.entity.ItemDisplay;
+import org.bukkit.entity.Player;
+import org.bukkit.entity.TextDisplay;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.plugin.Plugin;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A {@link HologramProvider} built on Paper {@link TextDisplay} and {@link ItemDisplay} entities, which needs no other plugin.
+ * <p>
+ * The entities are not persistent and are hidden by default: every hologram is only shown to the players within the
+ * view range, refreshed every {@link #VISIBILITY_TICKS} ticks. Setting a line only changes the text of its entity, so a
+ * timer update is a single metadata change. Every entity is only touched on the region thread of its hologram.
+ */
+public final class DisplayHologramProvider implements HologramProvider {
+
+    /** Holds the number of ticks between refreshes of the viewers of the holograms. */
+    private static final long VISIBILITY_TICKS = 10L;
+
+    /** Holds the height of a text line. */
+    private static final double TEXT_LINE_HEIGHT = 0.3;
+
+    /** Holds the height of an item line. */
+    private static final double ITEM_LINE_HEIGHT = 0.6;
+
+    /** Holds the serializer of the section-sign colored text produced by the config. */
+    private static final LegacyComponentSerializer LEGACY = LegacyComponentSerializer.builder()
+        .character(LegacyComponentSerializer.SECTION_CHAR).hexColors().useUnusualXRepeatedCharacterHexFormat().build();
+
+    /** Holds the {@link DisplayHologram} of every hologram name. */
+    private final Map<String, DisplayHologram> HOLOGRAMS = new ConcurrentHashMap<>();
+
+    /** Holds the distance, in blocks, within which players see a hologram. */
+    private final double RANGE;
+
+    /** Holds the repeating task that refreshes the viewers, or {@code null} while there is no hologram. */
+    private ScheduledTask visibilityTask;
+
+    /**
+     * Constructs a {@link DisplayHologramProvider}.
+     * @param range the distance, in blocks, within which players see a hologram
+     */
+    public DisplayHologramProvider(double range) {
+        this.RANGE = range;
+    }
+
+    /** Holds a line of a {@link DisplayHologram}. */
+    private static final class Line {
+
+        /** Holds the {@link Material} of an item line, or {@code null} for a text line. */
+        private final Material material;
+
+        /** Holds the text of a text line. */
+        private volatile String text;
+
+        private Line(Material material, String text) {
+            this.material = material;
+            this.text = text;
+        }
+    }
+
+    /** Holds the lines, entities and viewers of a hologram. Only touched on the region thread of its {@link Location}. */
+    private final class DisplayHologram {
+
+        /** Holds the {@link Location} of the top line. */
+        private final Location location;
+
+        /** Holds the {@link Line}s, from the top. */
+        private final List<Line> lines;
+
+        /** Holds the entity of every line, or an empty list while not spawned. */
+        private List<Display> entities = List.of();
+
+        /** Holds the players the entities are shown to. */
+        private final Set<Player> viewers = new HashSet<>();
+
+        private DisplayHologram(Location location, List<Line> lines) {
+            this.location = location;
+            this.lines = lines;
+        }
+
+        /** Spawns the entities, hidden from everyone, unless they are still there. */
+        private void spawn() {
+            if (!entities.isEmpty() && entities.stream().allMatch(Display::isValid)) return;
+            remove();
+
+            World world = location.getWorld();
+            Location at = location.clone();
+            List<Display> spawned = new ArrayList<>(lines.size());
+
+            for (Line line : lines) {
+                Display display;
+                if (line.material != null) {
+                    display = world.spawn(at, ItemDisplay.class, d -> {
+                        d.setItemStack(new ItemStack(line.material));
+                        d.setItemDisplayTransform(ItemDisplay.ItemDisplayTransform.GROUND);
+                        prepare(d);
+                    });
+                    at.subtract(0, ITEM_LINE_HEIGHT, 0);
+                } else {
+                    display = world.spawn(at, TextDisplay.class, d -> {
+                        d.text(toComponent(line.text));
+                        prepare(d);
+                    });
+                    at.subtract(0, TEXT_LINE_HEIGHT, 0);
+                }
+                spawned.add(display);
+            }
+            entities = spawned;
+        }
+
+        /** Shows the entities to the players in range, and hides them from those who left it. */
+        private void refreshViewers() {
+            // non-persistent entities are discarded with their chunk, and spawned again once it is loaded.
+            if (!location.getWorld().isChunkLoaded(location.getBlockX() >> 4, location.getBlockZ() >> 4)) {
+                entities = List.of();
+                viewers.clear();
+                return;
+            }
+            spawn();
+
+            Plugin plugin = FlagWar.getInstance();
+            Set<Player> inRange = new HashSet<>(location.getNearbyPlayers(RANGE));
+
+            for (Player player : inRange) {
+                if (viewers.add(player)) for (Display display : entities) player.showEntity(plugin, display);
+            }
+            viewers.removeIf(player -> {
+                if (inRange.contains(player)) return false;
+                if (player.isOnline()) for (Display display : entities) player.hideEntity(plugin, display);
+                return true;
+            });
+        }
+
+        /**
+         * Sets the text of the entity of a text line.
+         * @param index the index of the line
+         */
+        private void pushLine(int index) {
+            if (index >= entities.size()) return;
+            if (entities.get(index) instanceof TextDisplay display && display.isValid())
+                display.text(toComponent(lines.get(index).text));
+        }
+
+        /** Removes the entities. */
+        private void remove() {
+            for (Display display : entities) display.remove();
+            entities = List.of();
+            viewers.clear();
+        }
+    }
+
+    @Override
+    public String getName() {
+        return "display entities";
+    }
+
+    /** Returns the distance, in blocks, within which players see a hologram. */
+    public double getRange() {
+        return RANGE;
+    }
+
+    @Override
+    public void draw(String name, Location location, List<Map.Entry<String, String>> lines, Duration lifeTime) {
+        List<Line> parsed = new ArrayList<>(lines.size());
+
+        for (Map.Entry<String, String> line : lines) {
+            String data = line.getValue();
+            switch (line.getKey()) {
+                case "item" -> {
+                    Material material = Material.matchMaterial(data);
+                    parsed.add(material != null && material.isItem() ? new Line(material, null) : new Line(null, ""));
+                }
+                case "text" -> parsed.add(new Line(null, data));
+                case "timer" -> parsed.add(new Line(null, FormatUtil.time(lifeTime, data)));
+                default -> parsed.add(new Line(null, ""));
+            }
+        }
+
+        DisplayHologram hologram = new DisplayHologram(location.clone(), parsed);
+        DisplayHologram stale = HOLOGRAMS.put(name, hologram);
+        if (stale != null) onRegion(stale.location, stale::remove);
+
+        onRegion(hologram.location, () -> {
+            // a destroy may have overtaken the spawn.
+            if (HOLOGRAMS.get(name) == hologram) hologram.refreshViewers();
+        });
+        startVisibilityTask();
+    }
+
+    @Override
+    public void setLine(String name, int index, String text) {
+        DisplayHologram hologram = HOLOGRAMS.get(name);
+        if (hologram == null || index < 0 || index >= hologram.lines.size()) return;
+
+        hologram.lines.get(index).text = text;
+        onRegion(hologram.location, () -> hologram.pushLine(index));
+    }
+
+    @Override
+    public void destroy(String name) {
+        DisplayHologram hologram = HOLOGRAMS.remove(name);
+        if (hologram != null) onRegion(hologram.location, hologram::remove);
+    }
+
+    @Override
+    public synchronized void shutdown() {
+        if (visibilityTask != null) visibilityTask.cancel();
+        visibilityTask = null;
+
+        for (DisplayHologram hologram : HOLOGRAMS.values()) {
+            try {
+                onRegion(hologram.location, hologram::remove);
+            } catch (RuntimeException e) {
+                // nothing can be scheduled once the plugin is disabled; the entities are not persistent, so they are
+                // discarded with the server or their chunk.
+                Messaging.debug("Could not remove a display hologram at %s: %s", hologram.location, e.getMessage());
+            }
+        }
+        HOLOGRAMS.clear();
+    }
+
+    /** Refreshes the viewers of every hologram, each on its own region, and stops once there is none left. */
+    private void refreshAll() {
+        synchronized (this) {
+            if (HOLOGRAMS.isEmpty()) {
+                if (visibilityTask != null) visibilityTask.cancel();
+                visibilityTask = null;
+                return;
+            }
+        }
+
+        for (var entry : HOLOGRAMS.entrySet()) {
+            String name = entry.getKey();
+            DisplayHologram hologram = entry.getValue();
+            onRegion(hologram.location, () -> {
+                if (HOLOGRAMS.get(name) == hologram) hologram.refreshViewers();
+            });
+        }
+    }
+
+    private synchronized void startVisibilityTask() {
+        if (visibilityTask == null)
+            visibilityTask = FlagWar.getFlagWar().getScheduler().runRepeating(this::refreshAll, VISIBILITY_TICKS, VISIBILITY_TICKS);
+    }
+
+    /**
+     * Runs the task on the region of the {@link Location}, right away if this thread already owns it.
+     * @param location the {@link Location}
+     * @param task the task
+     */
+    private static void onRegion(Location location, Runnable task) {
+        TaskScheduler scheduler = FlagWar.getFlagWar().getScheduler();
+        if (scheduler.isRegionThread(location)) task.run();
+        else scheduler.run(location, task);
+    }
+
+    private static void prepare(Display display) {
+        display.setPersistent(false);
+        display.setVisibleByDefault(false);
+        display.setBillboard(Display.Billboard.CENTER);
+    }
+
+    private static Component toComponent(String text) {
+        return LEGACY.deserialize(text == null ? "" : text);
+    }
+}
@@ -0,0 +1,51 @@
+package io.github.townyadvanced.flagwar.hologram;
+
+import org.bukkit.Location;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A backend that draws the holograms of war flags.
+ * <p>
+ * The current provider is resolved by {@link HologramProviders}, so callers never look up hologram plugins themselves.
+ */
+public interface HologramProvider {
+
+    /** Returns the name of this provider, for logging. */
+    String getName();
+
+    /** Returns whether this provider actually shows holograms. */
+    default boolean isFunctional() {
+        return true;
+    }
+
+    /**
+     * Draws a hologram, replacing any hologram already drawn under the same name.
+     * @param name the name of the hologram
+     * @param location the {@link Location} of the hologram
+     * @param lines the type and data of every line, see {@link io.github.townyadvanced.flagwar.config.FlagWarConfig#getHologramSettings()}
+     * @param lifeTime the time left shown by the timer line
+     */
+    void draw(String name, Location location, List<Map.Entry<String, String>> lines, Duration lifeTime);
+
+    /**
+     * Sets the text of a line of a hologram, if it exists.
+     * @param name the name of the hologram
+     * @param index the index of the line
+     * @param text the text
+     */
+    void setLine(String name, int index, String text);
+
+    /**
+     * Destroys a hologram, if it exists.
+     * @param name the name of the hologram
+     */
+    void destroy(String name);
+
+    /** Releases whatever this provider holds, once it is replaced or the plugin disables. */
+    default void shutdown() {
+        // nothing to release.
+    }
+}
@@ -0,0 +1,105 @@
+package io.github.townyadvanced.flagwar.hologram;
+
+import io.github.townyadvanced.flagwar.FlagWar;
+import io.github.townyadvanced.flagwar.config.FlagWarConfig;
+import io.github.townyadvanced.flagwar.objects.CellUnderAttack;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.plugin.PluginManager;
+
+import java.util.List;
+import java.util.logging.Logger;
+
+/**
+ * Holds the current {@link HologramProvider}.
+ * <p>
+ * The provider is resolved once when the plugin enables, and again whenever another plugin enables or disables,
+ * so drawing, updating and destroying holograms never look up plugins. The display entities of the server are used,
+ * unless DecentHolograms is preferred in the config and enabled, or the server has no display entities.
+ * It is also resolved when the config is reloaded. When the provider changes, the holograms of the active flags are
+ * moved to the new one.
+ */
+public final class HologramProviders {
+
+    private HologramProviders() {}
+
+    /** Holds the {@link HologramProvider} used while no backend is available. */
+    private static final HologramProvider NONE = new NoOpHologramProvider();
+
+    /** Holds whether the server has display entities, which were added in 1.19.4. */
+    private static final boolean DISPLAYS_SUPPORTED = isClassPresent("org.bukkit.entity.TextDisplay");
+
+    /** Holds the current {@link HologramProvider}. */
+    private static volatile HologramProvider provider = NONE;
+
+    /** Returns the current {@link HologramProvider}, which is never {@code null}. */
+    public static HologramProvider get() {
+        return provider;
+    }
+
+    /** Resolves the {@link HologramProvider} from the config and the plugins that are currently enabled. */
+    public static void resolve() {
+        resolve(null);
+    }
+
+    /**
+     * Resolves the {@link HologramProvider} from the config and the plugins that are currently enabled, ignoring one that is disabling.
+     * @param disabling the {@link Plugin} that is being disabled, or {@code null}
+     */
+    public static synchronized void resolve(Plugin disabling) {
+        // e.g. the disable event of this plugin, called after it shut its provider down.
+        if (!FlagWar.getInstance().isEnabled() || disabling == FlagWar.getInstance()) return;
+
+        boolean decentHolograms = isAvailable(DecentHologramsProvider.PLUGIN_NAME, disabling);
+        boolean preferDecentHolograms = "decentholograms".equalsIgnoreCase(FlagWarConfig.getHologramProvider());
+
+        double range = FlagWarConfig.getHologramViewRange();
+
+        HologramProvider resolved;
+        if (decentHolograms && (preferDecentHolograms || !DISPLAYS_SUPPORTED))
+            resolved = provider instanceof DecentHologramsProvider ? provider : new DecentHologramsProvider();
+        else if (DISPLAYS_SUPPORTED)
+            resolved = provider instanceof DisplayHologramProvider display && display.getRange() == range ? provider
+                : new DisplayHologramProvider(range);
+        else
+            resolved = NONE;
+
+        if (resolved == provider) return;
+
+        List<CellUnderAttack> cells = FlagWarConfig.isHologramEnabled() ? FlagWar.getCellsUnderAttack() : List.of();
+
+        // DecentHolograms removes its own holograms when it disables; while it stays enabled, they are destroyed here.
+        if (provider instanceof DecentHologramsProvider && decentHolograms)
+            for (CellUnderAttack cell : cells) provider.destroy(cell.getCellHologramKey());
+
+        provider.shutdown();
+        provider = resolved;
+
+        // the timer lines are then kept up by the HologramUpdater, which only refers to holograms by name.
+        for (CellUnderAttack cell : cells) cell.drawHologram();
+
+        Logger logger = FlagWar.getInstance().getLogger();
+        if (resolved.isFunctional()) logger.info("Holograms are drawn with " + resolved.getName() + ".");
+        else if (FlagWarConfig.isHologramEnabled()) logger.warning("Could not find a hologram provider. Holograms will not be shown until one is enabled.");
+    }
+
+    /** Shuts the current {@link HologramProvider} down, when the plugin disables. */
+    public static synchronized void shutdown() {
+        provider.shutdown();
+        provider = NONE;
+    }
+
+    private static boolean isAvailable(String pluginName, Plugin disabling) {
+        PluginManager manager = FlagWar.getInstance().getServer().getPluginManager();
+        Plugin plugin = manager.getPlugin(pluginName);
+        return plugin != null && plugin != disabling && plugin.isEnabled();
+    }
+
+    private static boolean isClassPresent(String className) {
+        try {
+            Class.forName(className);
+            return true;
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package io.github.townyadvanced.flagwar.hologram;
+
+import org.bukkit.Location;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+/** A {@link HologramProvider} that shows nothing, used while no hologram backend is available. */
+public final class NoOpHologramProvider implements HologramProvider {
+
+    @Override
+    public String getName() {
+        return "none";
+    }
+
+    @Override
+    public boolean isFunctional() {
+        return false;
+    }
+
+    @Override
+    public void draw(String name, Location location, List<Map.Entry<String, String>> lines, Duration lifeTime) {
+        // nothing to draw.
+    }
+
+    @Override
+    public void setLine(String name, int index, String text) {
+        // nothing to update.
+    }
+
+    @Override
+    public void destroy(String name) {
+        // nothing to destroy.
+    }
+}
@@ -4,12 +4,24 @@ import com.google.common.base.Objects;
 import com.palmergames.bukkit.towny.TownyAPI;
 import com.palmergames.bukkit.towny.event.DeleteNationEvent;
 import com.palmergames.bukkit.towny.event.DeleteTownEvent;
+import com.palmergames.bukkit.towny.event.NationAddTownEvent;
+import com.palmergames.bukkit.towny.event.NationRemoveTownEvent;
+import com.palmergames.bukkit.towny.event.TownAddResidentEvent;
+import com.palmergames.bukkit.towny.event.TownClaimEvent;
 import com.palmergames.bukkit.towny.event.TownPreClaimEvent;
+import com.palmergames.bukkit.towny.event.TownRemoveResidentEvent;
+import com.palmergames.bukkit.towny.event.TownyLoadedDatabaseEvent;
+import com.palmergames.bukkit.towny.event.nation.NationAddAllyEvent;
+import com.palmergames.bukkit.towny.event.nation.NationRemoveAllyEvent;
+import com.palmergames.bukkit.towny.event.town.TownUnclaimEvent;
 import com.palmergames.bukkit.towny.event.actions.TownyBuildEvent;
 import com.palmergames.bukkit.towny.object.*;
 import io.github.townyadvanced.flagwar.BannerWarAPI;
+import io.github.townyadvanced.flagwar.FlagWar;
 import io.github.townyadvanced.flagwar.config.BannerWarConfig;
+import io.github.townyadvanced.flagwar.managers.AssociationCache;
 import io.github.townyadvanced.flagwar.managers.BattleManager;
+import io.github.townyadvanced.flagwar.managers.BotRoster;
 import io.github.townyadvanced.flagwar.objects.CellUnderAttack;
 import io.github.townyadvanced.flagwar.util.Broadcasts;
 import io.github.townyadvanced.flagwar.config.FlagWarConfig;
@@ -27,6 +39,8 @@ import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
 import org.bukkit.event.block.Action;
 import org.bukkit.event.player.PlayerInteractEvent;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
 import org.bukkit.inventory.EquipmentSlot;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.plugin.java.JavaPlugin;
@@ -198,6 +212,8 @@ public class BattleListener implements Listener {
 
     @EventHandler
     public void onTownDisband(DeleteTownEvent e) {
+        AssociationCache.invalidate();
+        BotRoster.invalidate();
         for (var b : BattleManager.getActiveBattles()) {
             if (b.isInactive()) continue;
             if (b.getContestedTown().getName().equals(e.getTownName())) b.prematurelyEndBattle();
@@ -206,6 +222,7 @@ public class BattleListener implements Listener {
 
     @EventHandler
     public void onNationDisband(DeleteNationEvent e) {
+        AssociationCache.invalidate();
         for (var b : BattleManager.getActiveBattles()) {
             if (b.isInactive()) continue;
             if (b.getAttacker().getName().equals(e.getNationName())) b.prematurelyEndBattle();
@@ -213,6 +230,50 @@ public class BattleListener implements Listener {
         }
     }
 
+    @EventHandler (priority = EventPriority.MONITOR)
+    public void onPlayerJoin(PlayerJoinEvent e) {
+        BATTLE_MANAGER.addParticipant(e.getPlayer());
+    }
+
+    @EventHandler (priority = EventPriority.MONITOR)
+    public void onPlayerQuit(PlayerQuitEvent e) {
+        BATTLE_MANAGER.removeParticipant(e.getPlayer());
+    }
+
+    @EventHandler (priority = EventPriority.MONITOR)
+    public void onResidentJoinTown(TownAddResidentEvent e) {
+        AssociationCache.invalidate();
+        BotRoster.invalidate();
+    }
+
+    @EventHandler (priority = EventPriority.MONITOR)
+    public void onResidentLeaveTown(TownRemoveResidentEvent e) {
+        AssociationCache.invalidate();
+        BotRoster.invalidate();
+    }
+
+    @EventHandler (priority = EventPriority.MONITOR)
+    public void onTownJoinNation(NationAddTownEvent e) {
+        AssociationCache.invalidate();
+        FlagWar.reindexAttackTargets(e.getTown(), e.getNation());
+    }
+
+    @EventHandler (priority = EventPriority.MONITOR)
+    public void onTownLeaveNation(NationRemoveTownEvent e) {
+        AssociationCache.invalidate();
+        FlagWar.reindexAttackTargets(e.getTown(), null);
+    }
+
+    @EventHandler (priority = EventPriority.MONITOR)
+    public void onNationAddAlly(NationAddAllyEvent e) {
+        AssociationCache.invalidate();
+    }
+
+    @EventHandler (priority = EventPriority.MONITOR)
+    public void onNationRemoveAlly(NationRemoveAllyEvent e) {
+        AssociationCache.invalidate();
+    }
+
     @EventHandler
     public void onTownBlockClaim(TownPreClaimEvent e) {
         if (BannerWarAPI.isInBattle(e.getTown()) && BannerWarAPI.isNotDormant(e.getTown())) {
@@ -221,15 +282,37 @@ public class BattleListener implements Listener {
         }
     }
 
-    @EventHandler (priority = EventPriority.MONITOR, ignoreCancelled = true)
-    public void onFlagStart(CellAttackEvent e) {
+    @EventHandler (priority = EventPriority.MONITOR)
+    public void onTownBlockClaimed(TownClaimEvent e) {
+        updateTownBlockAt(e.getTownBlock().getWorldCoord());
+    }
 
-        var c = e.getData();
-        String flagOwner = c.getNameOfFlagOwner();
-        Block fbb = c.getFlagBaseBlock();
+    @EventHandler (priority = EventPriority.MONITOR)
+    public void onTownBlockUnclaimed(TownUnclaimEvent e) {
+        updateTownBlockAt(e.getWorldCoord());
+    }
 
-        BATTLE_MANAGER.registerAttackStarted(flagOwner, fbb);
+    @EventHandler
+    public void onTownyDatabaseLoaded(TownyLoadedDatabaseEvent e) {
+        Battle.invalidateAllTownBlocks();
+    }
 
+    /**
+     * Discards the cached town blocks of the {@link Battle} that contains this {@link WorldCoord}, if any,
+     * and re-reads whether its town block is captured.
+     * @param wc the {@link WorldCoord} whose town block was claimed, unclaimed or transferred
+     */
+    private void updateTownBlockAt(WorldCoord wc) {
+        Battle battle = BannerWarAPI.getBattleAt(wc);
+        if (battle == null) return;
+
+        battle.invalidateTownBlocks();
+        battle.refreshCaptured(wc);
+    }
+
+    @EventHandler (priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onFlagStart(CellAttackEvent e) {
+        BATTLE_MANAGER.registerAttackStarted(e.getPlayer().getName(), e.getFlagBlock());
     }
 
     @EventHandler (priority = EventPriority.MONITOR, ignoreCancelled = true)
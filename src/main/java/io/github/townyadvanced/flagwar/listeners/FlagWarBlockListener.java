@@ -93,7 +93,7 @@ public class FlagWarBlockListener implements Listener {
 
             Battle battle = BannerWarAPI.getBattleAt(townBlock);
             if (BannerWarAPI.isAssociatedWithNation(r, defender)
-                && (battle == null || !battle.getCapturedTownBlocks().contains(townBlock))) return;
+                && (battle == null || !battle.isCaptured(townBlock))) return;
 
             if (battle == null) {
                 Broadcasts.sendErrorMessage(player, "You cannot flag a town that is not in a battle!");
@@ -144,8 +144,8 @@ public class FlagWarBlockListener implements Listener {
 
 
     /**
-     * Iteratively runs over {@link FlagWar#checkBlock(Player, Block, org.bukkit.event.Cancellable)} using the event's
-     * {@link Player}, {@link Block} ({@link BlockPistonExtendEvent#getBlocks()}), and the
+     * Runs {@link FlagWar#checkBlocks(Player, java.util.Collection, org.bukkit.event.Cancellable)} using the event's
+     * {@link Player}, {@link Block}s ({@link BlockPistonExtendEvent#getBlocks()}), and the
      * {@link BlockPistonExtendEvent} itself.
      *
      * @param blockPistonExtendEvent the {@link BlockPistonExtendEvent}.
@@ -153,14 +153,12 @@ public class FlagWarBlockListener implements Listener {
     @EventHandler(priority = EventPriority.LOWEST)
     @SuppressWarnings("unused")
     public void onBlockPistonExtend(final BlockPistonExtendEvent blockPistonExtendEvent) {
-        for (Block block : blockPistonExtendEvent.getBlocks()) {
-            FlagWar.checkBlock(null, block, blockPistonExtendEvent);
-        }
+        FlagWar.checkBlocks(null, blockPistonExtendEvent.getBlocks(), blockPistonExtendEvent);
     }
 
     /**
-     * Iteratively runs over {@link FlagWar#checkBlock(Player, Block, org.bukkit.event.Cancellable)} using the event's
-     * {@link Player}, {@link Block} ({@link BlockPistonRetractEvent#getBlocks()}), and the
+     * Runs {@link FlagWar#checkBlocks(Player, java.util.Collection, org.bukkit.event.Cancellable)} using the event's
+     * {@link Player}, {@link Block}s ({@link BlockPistonRetractEvent#getBlocks()}), and the
      * {@link BlockPistonRetractEvent} itself.
      * <br/>
      * Fails fast if {@link BlockPistonRetractEvent#isSticky()} is false.
@@ -173,9 +171,7 @@ public class FlagWarBlockListener implements Listener {
         if (!blockPistonRetractEvent.isSticky()) {
             return;
         }
-        for (Block block : blockPistonRetractEvent.getBlocks()) {
-            FlagWar.checkBlock(null, block, blockPistonRetractEvent);
-        }
+        FlagWar.checkBlocks(null, blockPistonRetractEvent.getBlocks(), blockPistonRetractEvent);
     }
 
     /**
@@ -35,12 +35,14 @@ import com.palmergames.bukkit.towny.object.Town;
 import com.palmergames.bukkit.towny.object.TownBlock;
 import com.palmergames.bukkit.towny.object.economy.transaction.TransactionType;
 import com.palmergames.bukkit.towny.object.WorldCoord;
+import io.github.townyadvanced.flagwar.BannerWarAPI;
 import io.github.townyadvanced.flagwar.FlagWar;
 import io.github.townyadvanced.flagwar.FlagWarAPI;
 import io.github.townyadvanced.flagwar.config.FlagWarConfig;
 import io.github.townyadvanced.flagwar.events.CellAttackCanceledEvent;
 import io.github.townyadvanced.flagwar.events.CellAttackEvent;
 import io.github.townyadvanced.flagwar.i18n.Translate;
+import io.github.townyadvanced.flagwar.objects.Battle;
 import io.github.townyadvanced.flagwar.objects.CellUnderAttack;
 import io.github.townyadvanced.flagwar.events.CellDefendedEvent;
 import io.github.townyadvanced.flagwar.events.CellWonEvent;
@@ -428,8 +430,10 @@ public class FlagWarCustomListener implements Listener {
     private void transferOrUnclaimOrKeepTownblock(final Town atkTown, final TownBlock townBlock, final Town defTown) {
         if (FlagWarConfig.isFlaggedTownBlockUnclaimed()) {
             unclaimTownBlock(townBlock);
+            updateBattleTownBlock(townBlock.getWorldCoord());
         } else if (FlagWarConfig.isFlaggedTownBlockTransferred()) {
             transferOwnership(atkTown, townBlock);
+            updateBattleTownBlock(townBlock.getWorldCoord());
         } else {
             String message = Translate.fromPrefixed("area.won.defender-keeps-claims");
             TownyMessaging.sendPrefixedTownMessage(atkTown, message);
@@ -437,6 +441,20 @@ public class FlagWarCustomListener implements Listener {
         }
     }
 
+    /**
+     * Discards the cached town blocks of the {@link Battle} that contains the given {@link WorldCoord}, if any, and
+     * marks that TownBlock as captured.
+     *
+     * @param worldCoord the WorldCoord of the TownBlock that changed hands.
+     */
+    private void updateBattleTownBlock(final WorldCoord worldCoord) {
+        Battle battle = BannerWarAPI.getBattleAt(worldCoord);
+        if (battle != null) {
+            battle.invalidateTownBlocks();
+            battle.refreshCaptured(worldCoord);
+        }
+    }
+
     private void messageWon(final CellUnderAttack cell, final Resident atkRes, final Nation atkNat) {
         String resName = atkRes.getFormattedName();
         String natName = atkNat.getFormattedName();
@@ -17,7 +17,6 @@
 
 package io.github.townyadvanced.flagwar.listeners;
 
-import org.bukkit.block.Block;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
@@ -31,15 +30,13 @@ import io.github.townyadvanced.flagwar.FlagWar;
 public class FlagWarEntityListener implements Listener {
 
     /** Listens for instances of the {@link EntityExplodeEvent},
-     * and runs a {@link FlagWar#checkBlock(org.bukkit.entity.Player, Block, org.bukkit.event.Cancellable)}
-     * for each block against a null {@link org.bukkit.entity.Player}.
+     * and runs a {@link FlagWar#checkBlocks(org.bukkit.entity.Player, java.util.Collection, org.bukkit.event.Cancellable)}
+     * over its blocks against a null {@link org.bukkit.entity.Player}.
      * @param event the {@link EntityExplodeEvent}.
      */
     @EventHandler(priority = EventPriority.LOWEST)
     @SuppressWarnings("unused")
     public void onEntityExplode(final EntityExplodeEvent event) {
-        for (Block block : event.blockList()) {
-            FlagWar.checkBlock(null, block, event);
-        }
+        FlagWar.checkBlocks(null, event.blockList(), event);
     }
 }
@@ -0,0 +1,23 @@
+package io.github.townyadvanced.flagwar.listeners;
+
+import io.github.townyadvanced.flagwar.hologram.HologramProviders;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.server.PluginDisableEvent;
+import org.bukkit.event.server.PluginEnableEvent;
+
+/** Resolves the {@link io.github.townyadvanced.flagwar.hologram.HologramProvider} again whenever a plugin enables or disables. */
+public class HologramProviderListener implements Listener {
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPluginEnable(PluginEnableEvent e) {
+        HologramProviders.resolve();
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPluginDisable(PluginDisableEvent e) {
+        // the plugin still reports itself as enabled while its disable event is called.
+        HologramProviders.resolve(e.getPlugin());
+    }
+}
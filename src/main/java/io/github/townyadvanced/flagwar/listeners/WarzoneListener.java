@@ -29,6 +29,7 @@ import com.palmergames.bukkit.towny.event.actions.TownySwitchEvent;
 import com.palmergames.bukkit.towny.event.damage.TownBlockPVPTestEvent;
 import com.palmergames.bukkit.towny.event.damage.TownyExplosionDamagesEntityEvent;
 import com.palmergames.bukkit.towny.object.PlayerCache.TownBlockStatus;
+import io.github.townyadvanced.flagwar.FlagWar;
 import io.github.townyadvanced.flagwar.FlagWarAPI;
 import io.github.townyadvanced.flagwar.config.FlagWarConfig;
 import io.github.townyadvanced.flagwar.i18n.Translate;
@@ -162,7 +163,7 @@ public class WarzoneListener implements Listener {
         if (!FlagWarConfig.isAllowingAttacks()
         || townyBurnEvent.isInWilderness()
         || !FlagWarConfig.isAllowingFireInWarZone()
-        || !Cell.parse(townyBurnEvent.getLocation()).isUnderAttack()) {
+        || !FlagWarAPI.isUnderAttack(townyBurnEvent.getLocation())) {
             return;
         }
         townyBurnEvent.setCancelled(false);
@@ -180,7 +181,7 @@ public class WarzoneListener implements Listener {
         if (!FlagWarConfig.isAllowingAttacks()
         || townyExplosionDamagesEntityEvent.isInWilderness()
         || !FlagWarConfig.isAllowingExplosionsInWarZone()
-        || !Cell.parse(townyExplosionDamagesEntityEvent.getLocation()).isUnderAttack()) {
+        || !FlagWarAPI.isUnderAttack(townyExplosionDamagesEntityEvent.getLocation())) {
             return;
         }
         townyExplosionDamagesEntityEvent.setCancelled(false);
@@ -200,14 +201,14 @@ public class WarzoneListener implements Listener {
             return;
         }
         List<Block> toAllow = new ArrayList<>();
-        for (Block block : event.getVanillaBlockList()) {
-            // Wilderness or not located inside a Cell which is under attack, skip it.
-            if (TownyAPI.getInstance().isWilderness(block)
-            || !Cell.parse(block.getLocation()).isUnderAttack()) {
+        // Blocks not located inside a Cell which is under attack are left out of the groups.
+        for (List<Block> cellBlocks : FlagWar.groupByCellUnderAttack(event.getVanillaBlockList()).values()) {
+            // Wilderness is resolved once per Cell, as every block of a Cell shares the same TownBlock.
+            if (TownyAPI.getInstance().isWilderness(cellBlocks.get(0))) {
                 continue;
             }
-            // This is an allowed explosion, so add it to our War-allowed list.
-            toAllow.add(block);
+            // This is an allowed explosion, so add the Cell's blocks to our War-allowed list.
+            toAllow.addAll(cellBlocks);
         }
         // Add all TownyFilteredBlocks to our list, since our list will be used.
         if (event.getTownyFilteredBlockList() != null) {
@@ -227,7 +228,7 @@ public class WarzoneListener implements Listener {
     @EventHandler
     public void onTownBlockPVPTestEvent(final TownBlockPVPTestEvent townBlockPVPTestEvent) {
         if (!FlagWarConfig.isAllowingAttacks()
-        || !Cell.parse(townBlockPVPTestEvent.getTownBlock().getWorldCoord()).isUnderAttack()) {
+        || !FlagWarAPI.isUnderAttack(townBlockPVPTestEvent.getTownBlock().getWorldCoord())) {
             return;
         }
         townBlockPVPTestEvent.setPvp(true);
@@ -250,7 +251,7 @@ public class WarzoneListener implements Listener {
         return !townBlockStatus.equals(TownBlockStatus.ENEMY)
             || !FlagWarConfig.isAllowingAttacks()
             || townyActionEvent.isInWilderness()
-            || !FlagWarAPI.isUnderAttack(Cell.parse(townyActionEvent.getLocation()));
+            || !FlagWarAPI.isUnderAttack(townyActionEvent.getLocation());
     }
 
     /**
@@ -265,7 +266,7 @@ public class WarzoneListener implements Listener {
         }
 
         Location blockLoc = townyActionEvent.getLocation();
-        CellUnderAttack cellData = FlagWarAPI.getAttackData(Cell.parse(blockLoc));
+        CellUnderAttack cellData = FlagWarAPI.getAttackData(blockLoc);
         Location flagLoc = cellData.getFlagBaseBlock().getLocation();
         // We don't care if the flag is above the block being placed, or if the block is too high above the flag.
         if (blockLoc.getY() < flagLoc.getY()
@@ -0,0 +1,82 @@
+package io.github.townyadvanced.flagwar.managers;
+
+import com.palmergames.bukkit.towny.object.Resident;
+import io.github.townyadvanced.flagwar.BannerWarAPI;
+import io.github.townyadvanced.flagwar.objects.Battle;
+import io.github.townyadvanced.flagwar.objects.BattleSide;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Caches, per resident {@link UUID}, the {@link BattleSide} of every active {@link Battle}.
+ * <p>
+ * Entries are computed lazily and stay valid until {@link #invalidate()} is called, which happens on Towny
+ * town/nation membership changes, on alliance changes, and when a battle starts or ends.
+ */
+public final class AssociationCache {
+
+    private AssociationCache() {}
+
+    /** Holds the cached sides of every resident, keyed by their {@link UUID}. */
+    private static final Map<UUID, Entry> ENTRIES = new ConcurrentHashMap<>();
+
+    /** Holds the current version of the cache; entries computed at an older version are stale. */
+    private static volatile int version = 0;
+
+    /**
+     * Holds the sides of a resident in every active {@link Battle}, computed at the specified version.
+     * @param version the version of the cache at which the sides were computed
+     * @param sides the {@link BattleSide} of the resident in every active {@link Battle}
+     */
+    private record Entry(int version, Map<Battle, BattleSide> sides) {}
+
+    /**
+     * Returns the {@link BattleSide} of the {@link Resident} in the {@link Battle}.
+     * <p>
+     * The side is cached until the next {@link #invalidate()}. Changes Towny makes without firing an event
+     * (such as edits to the database made while the server is running) are not seen until then.
+     * @param res the {@link Resident}, which may be {@code null}
+     * @param battle the {@link Battle}
+     */
+    public static BattleSide getSide(Resident res, Battle battle) {
+        if (res == null) return BattleSide.NONE;
+
+        BattleSide side = getEntry(res).sides().get(battle);
+
+        // the battle is not (or no longer) active, so it is not cached.
+        return side != null ? side : computeSide(res, battle);
+    }
+
+    /** Returns the current version of the cache, which changes every time it is invalidated. */
+    public static int getVersion() {
+        return version;
+    }
+
+    /** Discards every cached association. */
+    public static void invalidate() {
+        version++;
+        ENTRIES.clear();
+    }
+
+    private static Entry getEntry(Resident res) {
+        int current = version;
+        Entry entry = ENTRIES.get(res.getUUID());
+        if (entry != null && entry.version() == current) return entry;
+
+        Map<Battle, BattleSide> sides = new IdentityHashMap<>();
+        for (Battle b : BattleManager.getActiveBattles()) sides.put(b, computeSide(res, b));
+
+        entry = new Entry(current, sides);
+        ENTRIES.put(res.getUUID(), entry);
+        return entry;
+    }
+
+    private static BattleSide computeSide(Resident res, Battle battle) {
+        return BattleSide.of(
+            BannerWarAPI.isAssociatedWithNation(res, battle.getAttacker()),
+            BannerWarAPI.isAssociatedWithNation(res, battle.getDefender()));
+    }
+}
@@ -1,10 +1,10 @@
 package io.github.townyadvanced.flagwar.managers;
 
+import com.palmergames.bukkit.towny.scheduling.ScheduledTask;
+import com.palmergames.bukkit.towny.scheduling.TaskScheduler;
+import io.github.townyadvanced.flagwar.FlagWar;
 import io.github.townyadvanced.flagwar.config.BannerWarConfig;
-import org.bukkit.Bukkit;
 import org.bukkit.plugin.java.JavaPlugin;
-import org.bukkit.scheduler.BukkitScheduler;
-import org.bukkit.scheduler.BukkitTask;
 
 import java.util.logging.Logger;
 
@@ -16,11 +16,29 @@ public final class BattleClock {
     /** Holds the {@link BattleManager} instance.*/
     private final BattleManager BATTLE_MANAGER;
 
-    /** Holds the {@link org.bukkit.scheduler.BukkitScheduler} instance. */
-    private final BukkitScheduler SCHEDULER = Bukkit.getScheduler();
+    /**
+     * Holds the {@link TaskScheduler} instance. The clock runs on the global region,
+     * and hands the work of every battle to the region of that battle.
+     */
+    private final TaskScheduler SCHEDULER = FlagWar.getFlagWar().getScheduler();
+
+    /** Holds the {@link ScheduledTask} that runs every configurable cycle. The duration between cycles defaults to 2 minutes. */
+    private ScheduledTask CLOCK_TASK;
+
+    /** Holds the {@link ScheduledTask} that advances the progress of every boss bar, separately from the cycle. */
+    private ScheduledTask BOSS_BAR_TASK;
+
+    /** Holds the {@link ScheduledTask} that spreads the work of the current cycle over ticks, or {@code null} if the cycle is done. */
+    private ScheduledTask SLICE_TASK;
 
-    /** Holds the {@link BukkitTask} that runs every configurable cycle. The duration between cycles defaults to 2 minutes. */
-    private BukkitTask CLOCK_TASK;
+    /** Holds the number of ticks per cycle. */
+    private long ticksPerCycle;
+
+    /** Holds the number of ticks left in the current cycle. */
+    private long ticksLeftInCycle;
+
+    /** Holds the time, in nanoseconds, that the battle updates may take per tick. */
+    private long tickBudgetNanos;
 
     /** Holds the {@link Logger} of this class. */
     private final Logger LOGGER;
@@ -37,12 +55,18 @@ public final class BattleClock {
      */
     private void start() {
 
-        long secondsPerCycle = BannerWarConfig.getCycleSpeedSeconds() * 20L;
+        ticksPerCycle = Math.max(1L, BannerWarConfig.getCycleSpeedSeconds() * 20L);
+        tickBudgetNanos = Math.round(BannerWarConfig.getTickBudgetMillis() * 1_000_000);
 
-        CLOCK_TASK = SCHEDULER.runTaskTimer(
-            PLUGIN,
+        CLOCK_TASK = SCHEDULER.runRepeating(
             this::onCycle,
-            secondsPerCycle, secondsPerCycle);
+            ticksPerCycle, ticksPerCycle);
+
+        long bossBarTicks = Math.max(1L, BannerWarConfig.getBossBarUpdateTicks());
+
+        BOSS_BAR_TASK = SCHEDULER.runRepeating(
+            BossBarService::updateProgress,
+            bossBarTicks, bossBarTicks);
     }
 
     /**
@@ -53,12 +77,36 @@ public final class BattleClock {
             CLOCK_TASK.cancel();
             CLOCK_TASK = null;
         }
+        if (SLICE_TASK != null) {
+            SLICE_TASK.cancel();
+            SLICE_TASK = null;
+        }
+        if (BOSS_BAR_TASK != null) {
+            BOSS_BAR_TASK.cancel();
+            BOSS_BAR_TASK = null;
+        }
     }
 
     /**
      * The tasks that this class will perform every configured cycle.
      */
     private void onCycle() {
-        BATTLE_MANAGER.updateBattles();
+        BATTLE_MANAGER.beginUpdateCycle();
+        ticksLeftInCycle = ticksPerCycle;
+
+        if (SLICE_TASK == null)
+            SLICE_TASK = SCHEDULER.runRepeating(this::onSlice, 1L, 1L);
+    }
+
+    /**
+     * Updates as many battles of the current cycle as the tick budget allows, and stops once the cycle is done.
+     */
+    private void onSlice() {
+        int ticksLeft = (int) Math.min(Integer.MAX_VALUE, Math.max(1L, ticksLeftInCycle--));
+
+        if (BATTLE_MANAGER.continueUpdateCycle(tickBudgetNanos, ticksLeft)) {
+            SLICE_TASK.cancel();
+            SLICE_TASK = null;
+        }
     }
 }
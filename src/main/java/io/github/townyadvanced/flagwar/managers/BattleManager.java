@@ -1,29 +1,39 @@
 package io.github.townyadvanced.flagwar.managers;
 
+import com.google.errorprone.annotations.CanIgnoreReturnValue;
 import com.palmergames.bukkit.towny.TownyAPI;
 import com.palmergames.bukkit.towny.object.Nation;
+import com.palmergames.bukkit.towny.object.Resident;
 import com.palmergames.bukkit.towny.object.Town;
 import com.palmergames.bukkit.towny.object.TownBlock;
 import com.palmergames.bukkit.towny.object.WorldCoord;
+import com.palmergames.bukkit.towny.scheduling.TaskScheduler;
 import io.github.townyadvanced.flagwar.BannerWarAPI;
 import io.github.townyadvanced.flagwar.FlagWar;
+import io.github.townyadvanced.flagwar.FlagWarAPI;
 import io.github.townyadvanced.flagwar.database.DatabaseInteraction;
 import io.github.townyadvanced.flagwar.events.BattleResumeEvent;
 import io.github.townyadvanced.flagwar.events.BattleStartEvent;
 import io.github.townyadvanced.flagwar.objects.*;
+import io.github.townyadvanced.flagwar.util.AsyncExecutors;
 import io.github.townyadvanced.flagwar.util.BattleUtil;
+import io.github.townyadvanced.flagwar.util.LongObjectMap;
 import org.bukkit.Bukkit;
+import org.bukkit.Location;
 import org.bukkit.block.Block;
 import org.bukkit.entity.Player;
 import org.bukkit.plugin.java.JavaPlugin;
-import org.bukkit.scheduler.BukkitScheduler;
 import town.sheepy.townyAI.TownyAI;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 public final class BattleManager {
 
@@ -33,20 +43,52 @@ public final class BattleManager {
     /** Holds the {@link JavaPlugin} instance. */
     private final JavaPlugin PLUGIN;
 
-    /** Holds the {@link BukkitScheduler} instance. */
-    private final BukkitScheduler SCHEDULER;
+    /** Holds the {@link TaskScheduler} instance. */
+    private final TaskScheduler SCHEDULER;
 
     /** Holds the {@link WaypointManager} instance. */
     private final WaypointManager WAYPOINT_MANAGER;
 
-    /** Holds a {@link HashMap} of every {@link Battle} and its associated contested town's name. */
-    private static final Map<String, Battle> ACTIVE_BATTLES = new HashMap<>();
+    /** Holds a {@link Map} of every {@link Battle} and its associated contested town's name. */
+    private static final Map<String, Battle> ACTIVE_BATTLES = new ConcurrentHashMap<>();
+
+    /**
+     * Holds, per world name, an index from the packed coordinates of every initial {@link TownBlock}
+     * of every {@link Battle} in {@link #ACTIVE_BATTLES} to that battle. See {@link BattleUtil#pack(int, int)}.
+     * <p>
+     * Battles start and end from any region, so every index is copied on write under this map's monitor,
+     * and lookups read a published index without locking.
+     */
+    private static final Map<String, LongObjectMap<Battle>> BATTLE_INDEX = new ConcurrentHashMap<>();
+
+    /** Holds the {@link StageScheduler} that advances the stage of every {@link Battle} at its deadline. */
+    private final StageScheduler STAGE_SCHEDULER;
+
+    /** Holds the {@link AssociationCache} version at which the participants of every {@link Battle} were last refreshed. */
+    private volatile int participantsVersion = -1;
+
+    /** Holds the sequence number of the last participant snapshot taken, see {@link #refreshParticipants(Collection)}. */
+    private final AtomicLong PARTICIPANTS_SEQUENCE = new AtomicLong();
+
+    /** Holds the sequence number of the snapshot whose diff was last applied to every {@link Battle}. Only touched on the global region. */
+    private final Map<Battle, Long> APPLIED_PARTICIPANTS_SEQUENCES = new HashMap<>();
+
+    /** Holds the {@link Battle}s of the current update cycle, see {@link #beginUpdateCycle()}. */
+    private final List<Battle> CYCLE_QUEUE = new ArrayList<>();
+
+    /** Holds the position, in the {@link #CYCLE_QUEUE}, of the next {@link Battle} to update. */
+    private int cycleCursor = 0;
+
+    /** Holds the number of update cycles begun so far; used to rotate the order in which battles are updated. */
+    private int cycleCount = 0;
 
     public BattleManager(JavaPlugin plugin, DatabaseInteraction databaseInteraction, WaypointManager waypointManager) {
         DATABASE_INTERACTION = databaseInteraction;
         PLUGIN = plugin;
-        SCHEDULER = Bukkit.getScheduler();
+        SCHEDULER = FlagWar.getFlagWar().getScheduler();
         WAYPOINT_MANAGER = waypointManager;
+        STAGE_SCHEDULER = new StageScheduler(this);
+        BotRoster.refreshIfStale();
         resumeBattles();
     }
 
@@ -55,16 +97,20 @@ public final class BattleManager {
      */
     private void resumeBattles() {
         ACTIVE_BATTLES.clear();
+        BATTLE_INDEX.clear();
 
         DATABASE_INTERACTION.getBattles().thenAccept(battleRecords -> {
             for (BattleRecord r : battleRecords) {
                 Battle battle = new Battle(r, this);
-                ACTIVE_BATTLES.put(r.contestedTown(), battle);
                 PLUGIN.getLogger().info("Battle " + r.contestedTown() + " has been resumed");
 
-                CompletableFuture.runAsync(() ->
-                    Bukkit.getPluginManager().callEvent(new BattleResumeEvent(battle)),
-                runnable -> SCHEDULER.runTask(PLUGIN, runnable));
+                // the battle is published on the global region; its participants are refreshed on its own.
+                CompletableFuture.runAsync(() -> {
+                    putBattle(r.contestedTown(), battle);
+                    scheduleStageAdvance(battle);
+                    refreshParticipants(List.of(battle));
+                    Bukkit.getPluginManager().callEvent(new BattleResumeEvent(battle));
+                }, runnable -> SCHEDULER.run(runnable));
             }
         }).exceptionally(ex -> {
             ex.printStackTrace();
@@ -72,6 +118,48 @@ public final class BattleManager {
         });
     }
 
+    /**
+     * Schedules the {@link Battle} to advance when its current stage ends; see {@link StageScheduler#schedule(Battle)}.
+     * @param battle the {@link Battle}
+     */
+    public void scheduleStageAdvance(Battle battle) {
+        STAGE_SCHEDULER.schedule(battle);
+    }
+
+    /**
+     * Runs the task on the region that owns the home block of the {@link Battle}, right away if this thread already owns it.
+     * <p>
+     * On Folia, this lets battles in different regions progress in parallel; elsewhere, every region is the main thread.
+     * @param battle the {@link Battle}
+     * @param task the task
+     * @return whether the task ran right away, rather than being scheduled
+     */
+    @CanIgnoreReturnValue
+    public boolean runOnBattleRegion(Battle battle, Runnable task) {
+        Location home = battle.getHomeLocation();
+
+        if (home.getWorld() != null && SCHEDULER.isRegionThread(home)) {
+            task.run();
+            return true;
+        }
+
+        if (home.getWorld() == null) SCHEDULER.run(task);
+        else SCHEDULER.run(home, task);
+        return false;
+    }
+
+    /**
+     * Cancels every scheduled stage advance, and saves every battle that changed since it was last written,
+     * e.g. by a stage advance between update cycles. Must be called before the database executor is shut down.
+     */
+    public void shutdown() {
+        STAGE_SCHEDULER.stop();
+
+        // written right away rather than on the battle's region, as nothing can be scheduled while disabling.
+        for (Battle battle : ACTIVE_BATTLES.values())
+            if (battle.isDirty()) saveBattle(battle);
+    }
+
     /**
      * Returns every currently ongoing battle, dormant or not.
      */
@@ -80,48 +168,196 @@ public final class BattleManager {
     }
 
     /**
-     * Refreshes the battles' states, and saves them to the database.
+     * Begins a new update cycle over every active {@link Battle}, to be carried out by {@link #continueUpdateCycle(long, int)}.
+     * <p>
+     * Any battle left over from the previous cycle is updated first, so none is skipped.
      */
-    public void updateBattles() {
+    public void beginUpdateCycle() {
+        continueUpdateCycle(Long.MAX_VALUE, 1);
 
-        for (Map.Entry<String, Battle> entry : ACTIVE_BATTLES.entrySet()) {
-            Battle battle = entry.getValue();
+        // participants only need to be recomputed when associations changed; joins and quits are applied as they happen.
+        if (participantsVersion != AssociationCache.getVersion()) {
+            participantsVersion = AssociationCache.getVersion();
+            refreshParticipants(ACTIVE_BATTLES.values());
+        }
 
-            if (battle.isPendingStageAdvance()) battle.advanceStage(true);
-            battle.updateBossBar();
+        // copied, as saving a battle may end it prematurely; rotated, so the same battles are not always updated last.
+        CYCLE_QUEUE.addAll(ACTIVE_BATTLES.values());
+        if (!CYCLE_QUEUE.isEmpty()) Collections.rotate(CYCLE_QUEUE, -(cycleCount % CYCLE_QUEUE.size()));
+        cycleCount++;
+    }
 
-            BannerWarAPI.getAllBots().thenAccept(bots -> {
-                var associated = BannerWarAPI.getAssociatedPlayers(battle);
-                var notAssociated = BannerWarAPI.getNonAssociatedPlayers(battle);
+    /**
+     * Updates the battles of the current update cycle until the time budget is spent.
+     * Every battle is updated on its own region, see {@link #runOnBattleRegion(Battle, Runnable)}.
+     * <p>
+     * Regardless of the budget, enough battles are updated for the rest of the cycle to fit in the ticks left,
+     * so that every battle is updated once per cycle. The budget only measures updates that ran on this thread:
+     * once an update is handed to another region, which costs this thread next to nothing, only that quota applies.
+     * @param budgetNanos the time budget, in nanoseconds
+     * @param ticksLeft the number of ticks left in the current cycle, including this one
+     * @return whether every battle of the current cycle has been updated
+     */
+    @CanIgnoreReturnValue
+    public boolean continueUpdateCycle(long budgetNanos, int ticksLeft) {
+        int remaining = CYCLE_QUEUE.size() - cycleCursor;
+        if (remaining <= 0) return true;
+
+        int quota = (remaining + Math.max(1, ticksLeft) - 1) / Math.max(1, ticksLeft);
+        long start = System.nanoTime();
+        boolean inline = true;
+
+        for (int done = 0; cycleCursor < CYCLE_QUEUE.size() && (done < quota || inline && System.nanoTime() - start < budgetNanos); done++) {
+            Battle battle = CYCLE_QUEUE.get(cycleCursor++);
+            inline &= runOnBattleRegion(battle, () -> updateBattle(battle));
+        }
 
-                associated.removeAll(bots);
-                notAssociated.removeAll(bots);
+        if (cycleCursor < CYCLE_QUEUE.size()) return false;
 
-                CompletableFuture.runAsync(() -> {
+        CYCLE_QUEUE.clear();
+        cycleCursor = 0;
+        return true;
+    }
+
+    /**
+     * Saves the {@link Battle} to the database if it changed.
+     * @param battle the {@link Battle}
+     */
+    private void updateBattle(Battle battle) {
+
+        // the battle may have ended meanwhile, and must not be written back to the database.
+        if (!isActive(battle)) return;
+
+        if (battle.isDirty()) saveBattle(battle);
+    }
+
+    /**
+     * Writes the {@link Battle} to the database, and marks it as written.
+     * @param battle the {@link Battle}
+     */
+    private void saveBattle(Battle battle) {
+        BattleRecord rec = BattleRecord.of(battle);
+        if (battle.getHomeBlock() != null && battle.getContestedTown() != null && rec != null) {
+            battle.clearDirty();
+
+            // a rejected write is retried on the next update.
+            DATABASE_INTERACTION.insertOrUpdate(rec).exceptionally(ex -> {
+                battle.markDirty();
+                return null;
+            });
+        }
+    }
 
-                    for (String flagOwner : battle.getFlagOwners()) {
+    /**
+     * Returns whether the {@link Battle} is still in {@link #ACTIVE_BATTLES}.
+     * @param battle the {@link Battle}
+     */
+    static boolean isActive(Battle battle) {
+        return battle.getContestedTown() != null && ACTIVE_BATTLES.get(battle.getContestedTown().getName()) == battle;
+    }
 
-                        WAYPOINT_MANAGER.removePlayersFromWaypoint(
-                            (Collection<Player>) Bukkit.getOnlinePlayers(), flagOwner
-                        );
+    /**
+     * Recomputes the participants of the {@link Battle}s from the online players,
+     * and applies only the changes to their boss bars and flag waypoints.
+     * <p>
+     * The online players and their memberships are captured here, on the global region; the changes of every battle
+     * are computed from that capture on the integrations executor, and then applied in one batch back on the global region.
+     * Refreshes may complete out of order, so a diff older than the one last applied to its battle is dropped.
+     * See {@link ParticipantRefresh}.
+     * @param battles the {@link Battle}s
+     */
+    public void refreshParticipants(Collection<Battle> battles) {
+        if (battles.isEmpty()) return;
 
-                        WAYPOINT_MANAGER.addPlayersToWaypoint(
-                            associated, flagOwner
-                        );
-                    }
-                }, runnable -> SCHEDULER.runTask(PLUGIN, runnable));
-            }).exceptionally(ex -> {
-                PLUGIN.getLogger().severe("Error occurred while trying to update the battle " +
-                    "for " + battle.getContestedTown().getName() + ": " + ex.getMessage());
+        ParticipantRefresh.Snapshot snapshot = ParticipantRefresh.snapshot(PARTICIPANTS_SEQUENCE.incrementAndGet(), battles);
+
+        AsyncExecutors.integrations().supply(() -> ParticipantRefresh.compute(snapshot))
+            .thenAcceptAsync(this::applyParticipantDiffs, runnable -> SCHEDULER.run(runnable))
+            .exceptionally(ex -> {
+                // retried on the next cycle.
+                participantsVersion = -1;
+                PLUGIN.getLogger().warning("Could not refresh battle participants: " + ex.getMessage());
                 return null;
             });
+    }
 
-            BattleRecord rec = BattleRecord.of(battle);
-            if (battle.getHomeBlock() != null && battle.getContestedTown() != null && rec != null)
-                DATABASE_INTERACTION.insertOrUpdate(rec);
+    /**
+     * Applies the changes to the participants of every {@link Battle}, skipping battles that ended, players who left meanwhile,
+     * and changes computed from a snapshot older than the one last applied to the battle.
+     * @param diffs the changes, see {@link ParticipantRefresh#compute(ParticipantRefresh.Snapshot)}
+     */
+    private void applyParticipantDiffs(List<ParticipantRefresh.Diff> diffs) {
+        APPLIED_PARTICIPANTS_SEQUENCES.keySet().removeIf(battle -> !isActive(battle));
+
+        for (ParticipantRefresh.Diff diff : diffs) {
+            Battle battle = diff.battle();
+            if (!isActive(battle)) continue;
+
+            Long applied = APPLIED_PARTICIPANTS_SEQUENCES.get(battle);
+            if (applied != null && applied > diff.sequence()) continue;
+            APPLIED_PARTICIPANTS_SEQUENCES.put(battle, diff.sequence());
+
+            Collection<Player> joined = new ArrayList<>();
+            Collection<Player> left = new ArrayList<>();
+
+            for (Player p : diff.joined()) if (p.isOnline() && battle.addParticipant(p)) joined.add(p);
+            for (Player p : diff.left()) if (battle.removeParticipant(p)) left.add(p);
+
+            showWaypoints(battle.getFlagOwners(), joined);
+            hideWaypoints(battle.getFlagOwners(), left);
         }
     }
 
+    /**
+     * Adds the {@link Player} to the participants of every {@link Battle} they are associated with.
+     * @param p the {@link Player} who joined
+     */
+    public void addParticipant(Player p) {
+        Resident r = TownyAPI.getInstance().getResident(p);
+
+        for (Battle battle : ACTIVE_BATTLES.values())
+            if (BannerWarAPI.isAssociatedWithBattle(r, battle) && battle.addParticipant(p))
+                showWaypoints(battle.getFlagOwners(), List.of(p));
+    }
+
+    /**
+     * Removes the {@link Player} from the participants of every {@link Battle}.
+     * @param p the {@link Player} who quit
+     */
+    public void removeParticipant(Player p) {
+        for (Battle battle : ACTIVE_BATTLES.values())
+            if (battle.removeParticipant(p))
+                hideWaypoints(battle.getFlagOwners(), List.of(p));
+    }
+
+    /**
+     * Shows the waypoints of the flags to the players, excluding TownyAI bots.
+     * @param flagOwners the names of the flag owners
+     * @param players the players
+     */
+    private void showWaypoints(Collection<String> flagOwners, Collection<Player> players) {
+        if (flagOwners.isEmpty() || players.isEmpty()) return;
+
+        Collection<Player> viewers = new ArrayList<>(players);
+        BotRoster.removeBots(viewers);
+        if (viewers.isEmpty()) return;
+
+        for (String flagOwner : flagOwners)
+            WAYPOINT_MANAGER.addPlayersToWaypoint(viewers, flagOwner);
+    }
+
+    /**
+     * Hides the waypoints of the flags from the players.
+     * @param flagOwners the names of the flag owners
+     * @param players the players
+     */
+    private void hideWaypoints(Collection<String> flagOwners, Collection<Player> players) {
+        if (players.isEmpty()) return;
+
+        for (String flagOwner : flagOwners)
+            WAYPOINT_MANAGER.removePlayersFromWaypoint(players, flagOwner);
+    }
+
     /**
      * Begins a battle.
      * <p>
@@ -137,13 +373,15 @@ public final class BattleManager {
             CompletableFuture.runAsync(() -> {
 
                 Battle battle = new Battle(attacker, defender, contestedTown, result, this);
-                ACTIVE_BATTLES.put(contestedTown.getName(), battle);
+                putBattle(contestedTown.getName(), battle);
+                scheduleStageAdvance(battle);
+                refreshParticipants(List.of(battle));
 
                 logBannerPlacer(BannerPlacerRecord.of(bannerPlacer));
 
                 Bukkit.getServer().getPluginManager().callEvent(new BattleStartEvent(battle, bannerPlacer));
 
-            }, runnable -> SCHEDULER.runTask(PLUGIN, runnable))
+            }, runnable -> SCHEDULER.run(runnable))
         );
     }
 
@@ -155,6 +393,69 @@ public final class BattleManager {
         return ACTIVE_BATTLES.getOrDefault(townName, null);
     }
 
+    /**
+     * Returns the {@link Battle} that contains the {@link TownBlock} at the specified coordinates as an initial town block, or {@code null}.
+     * <p>
+     * This is a constant-time lookup on {@link #BATTLE_INDEX}, and does not allocate.
+     * @param worldName the name of the world
+     * @param x the X coordinate of the {@link TownBlock}
+     * @param z the Z coordinate of the {@link TownBlock}
+     */
+    public static Battle getBattleAt(String worldName, int x, int z) {
+        LongObjectMap<Battle> index = BATTLE_INDEX.get(worldName);
+        return index == null ? null : index.get(BattleUtil.pack(x, z));
+    }
+
+    /**
+     * Puts the {@link Battle} into the {@link #ACTIVE_BATTLES} map and indexes its initial town blocks.
+     * @param townName the {@link Battle}'s contested town's name
+     * @param battle the specified {@link Battle}
+     */
+    private static void putBattle(String townName, Battle battle) {
+        synchronized (BATTLE_INDEX) {
+            Battle previous = ACTIVE_BATTLES.put(townName, battle);
+            if (previous != null) unindexBattle(previous);
+
+            Map<String, LongObjectMap<Battle>> copies = new HashMap<>();
+            for (WorldCoord wc : battle.getInitialTownBlocksAsWorldCoords())
+                copies.computeIfAbsent(wc.getWorldName(), BattleManager::copyIndex)
+                    .put(BattleUtil.pack(wc.getX(), wc.getZ()), battle);
+
+            BATTLE_INDEX.putAll(copies);
+        }
+
+        AssociationCache.invalidate();
+    }
+
+    /**
+     * Returns a writable copy of the index of the world, see {@link #BATTLE_INDEX}.
+     * @param worldName the name of the world
+     */
+    private static LongObjectMap<Battle> copyIndex(String worldName) {
+        LongObjectMap<Battle> index = BATTLE_INDEX.get(worldName);
+        return index == null ? new LongObjectMap<>() : new LongObjectMap<>(index);
+    }
+
+    /**
+     * Removes every entry of the {@link Battle} from the {@link #BATTLE_INDEX}.
+     * @param battle the specified {@link Battle}
+     */
+    private static void unindexBattle(Battle battle) {
+        Map<String, LongObjectMap<Battle>> copies = new HashMap<>();
+
+        for (WorldCoord wc : battle.getInitialTownBlocksAsWorldCoords()) {
+            if (!BATTLE_INDEX.containsKey(wc.getWorldName())) continue;
+
+            copies.computeIfAbsent(wc.getWorldName(), BattleManager::copyIndex)
+                .remove(BattleUtil.pack(wc.getX(), wc.getZ()), battle);
+        }
+
+        copies.forEach((worldName, index) -> {
+            if (index.isEmpty()) BATTLE_INDEX.remove(worldName);
+            else BATTLE_INDEX.put(worldName, index);
+        });
+    }
+
     /**
      * Removes the {@link Battle} from the {@link #ACTIVE_BATTLES} map.
      * @param battle the specified {@link Battle}
@@ -169,6 +470,7 @@ public final class BattleManager {
      * */
     public void removeBattleAndDB(Battle battle) {
         removeBattle(battle);
+        STAGE_SCHEDULER.unschedule(battle);
         DATABASE_INTERACTION.deleteBattle(battle.getContestedTown().getName());
     }
 
@@ -185,14 +487,23 @@ public final class BattleManager {
      * @param townName the specified {@link Battle}'s contested town's name.
      */
     public static void removeBattle(String townName) {
-        ACTIVE_BATTLES.remove(townName);
+        Battle battle;
+        synchronized (BATTLE_INDEX) {
+            battle = ACTIVE_BATTLES.remove(townName);
+            if (battle == null) return;
+
+            unindexBattle(battle);
+        }
+
+        BossBarService.delete(battle);
+        AssociationCache.invalidate();
     }
 
     /**
      * Removes the boss bar of every {@link Battle} to prevent duplicates.
      */
     public static void deleteBossBars() {
-        for (var battle : ACTIVE_BATTLES.values()) battle.deleteBossBar();
+        BossBarService.deleteAll();
 
     }
 
@@ -235,6 +546,7 @@ public final class BattleManager {
         }
 
         WAYPOINT_MANAGER.deleteWaypoint(c.getNameOfFlagOwner());
+        battle.refreshCaptured(wc);
 
         if (battle.getHomeBlockCoords().equals(wc)) {
             battle.loseDefense(); // check if this code works, if not, bring it back.
@@ -242,7 +554,7 @@ public final class BattleManager {
         }
 
         else {
-            battle.removeFlag(c.getNameOfFlagOwner());
+            battle.removeFlag(c);
             return false;
         }
     }
@@ -261,9 +573,8 @@ public final class BattleManager {
             return;
         }
 
-        String flagOwner = c.getAttackData().getNameOfFlagOwner();
-        battle.removeFlag(flagOwner);
-        WAYPOINT_MANAGER.deleteWaypoint(flagOwner);
+        String flagOwner = battle.removeFlag(c);
+        if (flagOwner != null) WAYPOINT_MANAGER.deleteWaypoint(flagOwner);
     }
 
     /**
@@ -279,10 +590,15 @@ public final class BattleManager {
             return;
         }
 
-        var cells = FlagWar.getCellsUnderAttackByPlayer(nameOfFlagOwner);
-        if (!cells.isEmpty())
-            WAYPOINT_MANAGER.createWaypoint(cells.get(0));
+        CellUnderAttack cell = FlagWarAPI.getAttackData(flagBase.getLocation());
+        if (cell == null) {
+            PLUGIN.getLogger().warning("The flag placed by " + nameOfFlagOwner + " was not registered!");
+            return;
+        }
+
+        WAYPOINT_MANAGER.createWaypoint(cell);
 
-        battle.addFlag(nameOfFlagOwner);
+        battle.addFlag(cell);
+        showWaypoints(List.of(nameOfFlagOwner), battle.getParticipants());
     }
 }
@@ -0,0 +1,132 @@
+package io.github.townyadvanced.flagwar.managers;
+
+import io.github.townyadvanced.flagwar.objects.Battle;
+import io.github.townyadvanced.flagwar.objects.BattleStage;
+import org.bukkit.Bukkit;
+import org.bukkit.boss.BarColor;
+import org.bukkit.boss.BarStyle;
+import org.bukkit.boss.BossBar;
+import org.bukkit.entity.Player;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Owns the {@link BossBar} of every {@link Battle}.
+ * <p>
+ * A bar is only created once the battle has an online participant and a stage that is displayed,
+ * its title is only rebuilt on stage changes, and its progress is advanced by {@link #updateProgress()},
+ * which the {@link BattleClock} runs on its own, lightweight schedule.
+ */
+public final class BossBarService {
+
+    private BossBarService() {}
+
+    /** Holds the format of the title of every {@link BossBar}. */
+    private static final String TITLE_FORMAT = "[BATTLE] %s - %s"; // probably going to make this configurable?
+
+    /** Holds the smallest change in progress that is sent to the players. */
+    private static final double PROGRESS_STEP = 0.001;
+
+    /**
+     * Holds the {@link BossBar} of every {@link Battle} that has one.
+     * Concurrent, as participants are added from the region thread of their battle.
+     */
+    private static final Map<Battle, BossBar> BARS = new ConcurrentHashMap<>();
+
+    /**
+     * Shows the {@link BossBar} of the {@link Battle} to a new participant, creating the bar if needed.
+     * @param battle the {@link Battle}
+     * @param p the {@link Player}
+     */
+    public static void addViewer(Battle battle, Player p) {
+        BossBar bar = BARS.get(battle);
+
+        if (bar == null) {
+            if (!isDisplayed(battle.getCurrentStage())) return;
+
+            bar = BARS.computeIfAbsent(battle, b -> {
+                BossBar created = Bukkit.createBossBar(title(b), BarColor.RED, BarStyle.SOLID);
+                created.setProgress(progress(b));
+                return created;
+            });
+        }
+
+        bar.addPlayer(p);
+    }
+
+    /**
+     * Hides the {@link BossBar} of the {@link Battle} from a former participant.
+     * @param battle the {@link Battle}
+     * @param p the {@link Player}
+     */
+    public static void removeViewer(Battle battle, Player p) {
+        BossBar bar = BARS.get(battle);
+        if (bar != null) bar.removePlayer(p);
+    }
+
+    /**
+     * Rebuilds the title of the {@link BossBar} of the {@link Battle} after a stage change,
+     * or deletes the bar if the new stage is not displayed.
+     * @param battle the {@link Battle}
+     */
+    public static void onStageChanged(Battle battle) {
+        BossBar bar = BARS.get(battle);
+        if (bar == null) return;
+
+        if (!isDisplayed(battle.getCurrentStage())) {
+            delete(battle);
+            return;
+        }
+
+        bar.setTitle(title(battle));
+        bar.setProgress(progress(battle));
+    }
+
+    /**
+     * Deletes the {@link BossBar} of the {@link Battle}, if any.
+     * @param battle the {@link Battle}
+     */
+    public static void delete(Battle battle) {
+        BossBar bar = BARS.remove(battle);
+        if (bar != null) bar.removeAll();
+    }
+
+    /** Deletes every {@link BossBar}. */
+    public static void deleteAll() {
+        for (Battle battle : new ArrayList<>(BARS.keySet())) delete(battle);
+    }
+
+    /** Advances the progress of every {@link BossBar}, sending only visible changes. */
+    public static void updateProgress() {
+        for (var entry : BARS.entrySet()) {
+            BossBar bar = entry.getValue();
+            double progress = progress(entry.getKey());
+
+            if (Math.abs(bar.getProgress() - progress) >= PROGRESS_STEP) bar.setProgress(progress);
+        }
+    }
+
+    /**
+     * Returns whether a {@link BossBar} is displayed during the {@link BattleStage}.
+     * @param stage the {@link BattleStage}
+     */
+    private static boolean isDisplayed(BattleStage stage) {
+        return stage != BattleStage.DORMANT && stage != BattleStage.END;
+    }
+
+    private static String title(Battle battle) {
+        return String.format(TITLE_FORMAT, battle.getContestedTown().getName(),
+            battle.getCurrentStage().name().toUpperCase().replace("_", " "));
+    }
+
+    private static double progress(Battle battle) {
+        Duration duration = battle.getDuration(battle.getCurrentStage());
+        if (duration == null || duration.isZero()) return 1.0;
+
+        double progress = 1.0 - (double) battle.getTimeRemainingForCurrentStage().toSeconds() / duration.toSeconds();
+        return Math.max(0.0, Math.min(1.0, progress));
+    }
+}
@@ -0,0 +1,126 @@
+package io.github.townyadvanced.flagwar.managers;
+
+import com.palmergames.bukkit.towny.TownyAPI;
+import com.palmergames.bukkit.towny.object.Resident;
+import com.palmergames.bukkit.towny.object.Town;
+import io.github.townyadvanced.flagwar.config.BannerWarConfig;
+import io.github.townyadvanced.flagwar.util.AsyncExecutors;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import town.sheepy.townyAI.TownyAI;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Caches the {@link UUID}s of every TownyAI bot, that is, every resident of a TownyAI city state, shared by every battle.
+ * <p>
+ * The roster is refreshed asynchronously once it is older than the configured TTL, or after {@link #invalidate()},
+ * which happens on Towny town membership changes. Lookups never wait for a refresh; they use the last roster.
+ * Single lookups do not check the age of the roster; batches check it once, see {@link #removeBots(Collection)}.
+ */
+public final class BotRoster {
+
+    private BotRoster() {}
+
+    /** Holds the {@link UUID}s of every bot, as of the last refresh. Replaced, never mutated. */
+    private static volatile Set<UUID> bots = Set.of();
+
+    /** Holds the {@link System#currentTimeMillis()} at which the {@link #bots} were last refreshed, or 0 if they are stale. */
+    private static volatile long refreshedAtMillis = 0;
+
+    /** Holds whether a refresh is in progress. */
+    private static final AtomicBoolean REFRESHING = new AtomicBoolean();
+
+    /** Holds the number of invalidations so far; a refresh that overlapped an invalidation leaves the roster stale. */
+    private static final AtomicInteger GENERATION = new AtomicInteger();
+
+    /**
+     * Returns whether the {@link Player} is a TownyAI bot, in constant time.
+     * @param player the {@link Player}
+     */
+    public static boolean isBot(Player player) {
+        return player != null && isBot(player.getUniqueId());
+    }
+
+    /**
+     * Returns whether the {@link UUID} belongs to a TownyAI bot, in constant time.
+     * @param uuid the {@link UUID}
+     */
+    public static boolean isBot(UUID uuid) {
+        return bots.contains(uuid);
+    }
+
+    /**
+     * Removes every TownyAI bot from the players, checking the age of the roster once for the whole batch.
+     * @param players the players
+     */
+    public static void removeBots(Collection<Player> players) {
+        refreshIfStale();
+        Set<UUID> roster = bots;
+        players.removeIf(player -> roster.contains(player.getUniqueId()));
+    }
+
+    /** Returns an unmodifiable snapshot of the {@link UUID}s of every bot. */
+    public static Set<UUID> getBots() {
+        refreshIfStale();
+        return bots;
+    }
+
+    /** Marks the roster as stale, and starts refreshing it. */
+    public static void invalidate() {
+        GENERATION.incrementAndGet();
+        refreshedAtMillis = 0;
+        refreshIfStale();
+    }
+
+    /** Starts refreshing the roster if it is older than its TTL, unless a refresh is already in progress. */
+    public static void refreshIfStale() {
+        long ttlMillis = BannerWarConfig.getBotRosterTtlSeconds() * 1000L;
+        if (System.currentTimeMillis() - refreshedAtMillis < ttlMillis) return;
+        if (!REFRESHING.compareAndSet(false, true)) return;
+
+        refresh().whenComplete((result, ex) -> {
+            REFRESHING.set(false);
+            if (ex != null) Bukkit.getLogger().severe("Error occurred while refreshing the TownyAI bot roster: " + ex.getMessage());
+            // catch up with an invalidation that happened during this refresh.
+            else if (refreshedAtMillis == 0) refreshIfStale();
+        });
+    }
+
+    private static CompletableFuture<Set<UUID>> refresh() {
+        long startedAtMillis = System.currentTimeMillis();
+        int generation = GENERATION.get();
+
+        if (Bukkit.getServer().getPluginManager().getPlugin("townyAI") == null) {
+            publish(Set.of(), startedAtMillis, generation);
+            return CompletableFuture.completedFuture(Set.of());
+        }
+
+        // the residents are collected on the integrations executor, not on whichever thread completed TownyAI's future.
+        return TownyAI.getTownyAIAPI().getAllCityStatesAsync().thenApplyAsync(cityStates -> {
+            Set<UUID> out = new HashSet<>();
+
+            for (var cityState : cityStates) {
+                Town town = TownyAPI.getInstance().getTown(cityState);
+                if (town == null) continue;
+
+                for (Resident res : town.getResidents()) out.add(res.getUUID());
+            }
+
+            Set<UUID> snapshot = Set.copyOf(out);
+            publish(snapshot, startedAtMillis, generation);
+            return snapshot;
+        }, AsyncExecutors.integrations());
+    }
+
+    private static void publish(Set<UUID> snapshot, long startedAtMillis, int generation) {
+        bots = snapshot;
+        refreshedAtMillis = generation == GENERATION.get() ? startedAtMillis : 0;
+    }
+}
@@ -0,0 +1,170 @@
+package io.github.townyadvanced.flagwar.managers;
+
+import com.palmergames.bukkit.towny.scheduling.ScheduledTask;
+import com.palmergames.bukkit.towny.scheduling.TaskScheduler;
+import io.github.townyadvanced.flagwar.FlagWar;
+import io.github.townyadvanced.flagwar.objects.CellUnderAttack;
+import org.bukkit.Location;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Fires the timed events of every {@link CellUnderAttack}, such as its phase changes, from a single timer wheel.
+ * <p>
+ * Deadlines are measured on the monotonic {@link System#nanoTime()} clock, so they do not drift when the server lags:
+ * a late tick fires everything that became due meanwhile. The wheel is only ticked while it holds timers.
+ * <p>
+ * A timer fires on the region of its flag, so flags of different regions may be won at the same time; the attack
+ * bookkeeping they reach is guarded for that, see {@link io.github.townyadvanced.flagwar.FlagWar#registerAttack(CellUnderAttack)}.
+ */
+public final class FlagClock {
+
+    private FlagClock() {}
+
+    /** Holds the number of nanoseconds in a server tick. */
+    private static final long NANOS_PER_TICK = 50_000_000L;
+
+    /** Holds the number of slots of the wheel, one per tick; always a power of two. */
+    private static final int WHEEL_SIZE = 512;
+
+    /** Holds the mask that maps a tick to its slot of the wheel. */
+    private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+
+    /** Holds the {@link System#nanoTime()} from which ticks are counted. */
+    private static final long ORIGIN_NANOS = System.nanoTime();
+
+    /** Holds the timers of every slot; a timer due more than one turn away waits in its slot for the later turns. */
+    @SuppressWarnings("unchecked")
+    private static final List<Timer>[] WHEEL = new List[WHEEL_SIZE];
+
+    static {
+        for (int i = 0; i < WHEEL_SIZE; i++) WHEEL[i] = new ArrayList<>();
+    }
+
+    /** Holds the next tick whose slot is to be processed. */
+    private static long cursor;
+
+    /** Holds the number of timers in the wheel, cancelled or not. */
+    private static int pending;
+
+    /** Holds the repeating task that ticks the wheel, or {@code null} while the wheel is empty. */
+    private static ScheduledTask wheelTask;
+
+    /** A timed event of the {@link FlagClock}, which may be cancelled until it fires. */
+    public static final class Timer {
+
+        /** Holds the tick at which this timer is due. */
+        private final long deadlineTick;
+
+        /** Holds the {@link Location} whose region runs the action, or {@code null} for the global region. */
+        private final Location location;
+
+        /** Holds the action to run when this timer is due. */
+        private final Runnable action;
+
+        /** Holds whether this timer was cancelled. */
+        private volatile boolean cancelled;
+
+        private Timer(long deadlineTick, Location location, Runnable action) {
+            this.deadlineTick = deadlineTick;
+            this.location = location;
+            this.action = action;
+        }
+
+        /** Cancels this timer, so that its action does not run. */
+        public void cancel() {
+            cancelled = true;
+        }
+
+        /** Returns whether this timer was cancelled. */
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        private void fire() {
+            if (!cancelled) action.run();
+        }
+    }
+
+    /** Returns the current reading of the monotonic clock, in nanoseconds. */
+    public static long now() {
+        return System.nanoTime();
+    }
+
+    /**
+     * Schedules the action to run on the region of the {@link Location} once the delay has passed.
+     * @param location the {@link Location} whose region runs the action, or {@code null} for the global region
+     * @param action the action
+     * @param delayNanos the delay, in nanoseconds
+     * @return the {@link Timer}, to cancel it
+     */
+    public static synchronized Timer schedule(Location location, Runnable action, long delayNanos) {
+        if (wheelTask == null) {
+            cursor = currentTick();
+            wheelTask = scheduler().runRepeating(FlagClock::tick, 1L, 1L);
+        }
+
+        long deadlineTick = Math.floorDiv(now() + Math.max(0L, delayNanos) - ORIGIN_NANOS + NANOS_PER_TICK - 1, NANOS_PER_TICK);
+        Timer timer = new Timer(deadlineTick, location, action);
+
+        WHEEL[(int) (Math.max(deadlineTick, cursor) & WHEEL_MASK)].add(timer);
+        pending++;
+        return timer;
+    }
+
+    /** Removes every timer and stops ticking the wheel. */
+    public static synchronized void stop() {
+        for (List<Timer> slot : WHEEL) slot.clear();
+        pending = 0;
+        cancelWheelTask();
+    }
+
+    /** Fires every timer that is due, including those of ticks skipped by lag. */
+    private static void tick() {
+        List<Timer> due = new ArrayList<>();
+
+        synchronized (FlagClock.class) {
+            long now = currentTick();
+
+            // a whole turn covers every slot, so nothing is missed however long the lag was.
+            for (long t = Math.max(cursor, now - WHEEL_MASK); t <= now; t++) {
+                WHEEL[(int) (t & WHEEL_MASK)].removeIf(timer -> {
+                    if (!timer.cancelled && timer.deadlineTick > now) return false;
+                    if (!timer.cancelled) due.add(timer);
+                    pending--;
+                    return true;
+                });
+            }
+
+            cursor = now + 1;
+            if (pending == 0) cancelWheelTask();
+        }
+
+        for (Timer timer : due) dispatch(timer);
+    }
+
+    /**
+     * Fires the {@link Timer} on the region of its {@link Location}, right away if this thread already owns it.
+     * @param timer the {@link Timer}
+     */
+    private static void dispatch(Timer timer) {
+        Location location = timer.location;
+
+        if (location == null || location.getWorld() == null || scheduler().isRegionThread(location)) timer.fire();
+        else scheduler().run(location, timer::fire);
+    }
+
+    private static long currentTick() {
+        return (now() - ORIGIN_NANOS) / NANOS_PER_TICK;
+    }
+
+    private static void cancelWheelTask() {
+        if (wheelTask != null) wheelTask.cancel();
+        wheelTask = null;
+    }
+
+    private static TaskScheduler scheduler() {
+        return FlagWar.getFlagWar().getScheduler();
+    }
+}
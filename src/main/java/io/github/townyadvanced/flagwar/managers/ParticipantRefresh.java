@@ -0,0 +1,115 @@
+package io.github.townyadvanced.flagwar.managers;
+
+import com.palmergames.bukkit.towny.TownyAPI;
+import com.palmergames.bukkit.towny.object.Nation;
+import com.palmergames.bukkit.towny.object.Resident;
+import io.github.townyadvanced.flagwar.BannerWarAPI;
+import io.github.townyadvanced.flagwar.objects.Battle;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Computes the changes to the participants of battles, in the three phases of {@link BattleManager#refreshParticipants(Collection)}:
+ * a {@link Snapshot} of the online players and their memberships is taken on the server thread,
+ * the {@link Diff} of every battle is computed from it off-thread, and the diffs are applied back on the server thread.
+ * <p>
+ * A player is associated with a battle if their nation is associated with one of the rival nations,
+ * as decided by {@link BannerWarAPI#isAssociatedNation(Nation, Nation)} when the snapshot is taken.
+ * <p>
+ * Every snapshot is stamped with a sequence number, so that a diff computed from an older snapshot
+ * is never applied over a newer one.
+ */
+final class ParticipantRefresh {
+
+    private ParticipantRefresh() {}
+
+    /**
+     * Holds an immutable capture of everything needed to compute the participants of battles.
+     * @param sequence the sequence number of this snapshot, increasing with every snapshot taken
+     * @param nations the {@link UUID} of the nation of every online {@link Player} who has one
+     * @param battles the {@link BattleView} of every battle to refresh
+     */
+    record Snapshot(long sequence, Map<Player, UUID> nations, List<BattleView> battles) {}
+
+    /**
+     * Holds an immutable capture of a {@link Battle}.
+     * @param battle the {@link Battle}
+     * @param nations the {@link UUID}s of the nations of online players that are associated with either rival nation
+     * @param participants the participants of the battle at the time of the capture
+     */
+    record BattleView(Battle battle, Set<UUID> nations, List<Player> participants) {}
+
+    /**
+     * Holds the changes to the participants of a {@link Battle}.
+     * @param sequence the sequence number of the {@link Snapshot} the changes were computed from
+     * @param battle the {@link Battle}
+     * @param joined the players who are to become participants
+     * @param left the players who are no longer participants
+     */
+    record Diff(long sequence, Battle battle, List<Player> joined, List<Player> left) {}
+
+    /**
+     * Captures the online players, their nations, and the rival nations and participants of the battles.
+     * Must be called on the server thread, as it reads Towny and Bukkit state.
+     * @param sequence the sequence number of the snapshot
+     * @param battles the {@link Battle}s to refresh
+     */
+    static Snapshot snapshot(long sequence, Collection<Battle> battles) {
+        Map<Player, UUID> nations = new HashMap<>();
+        Set<Nation> online = new HashSet<>();
+
+        for (Player p : Bukkit.getOnlinePlayers()) {
+            Resident r = TownyAPI.getInstance().getResident(p);
+            Nation nation = r == null ? null : r.getNationOrNull();
+            if (nation == null) continue;
+
+            nations.put(p, nation.getUUID());
+            online.add(nation);
+        }
+
+        List<BattleView> views = new ArrayList<>(battles.size());
+        for (Battle b : battles) {
+            Set<UUID> sides = new HashSet<>();
+            for (Nation nation : online) {
+                if (BannerWarAPI.isAssociatedNation(nation, b.getAttacker()) || BannerWarAPI.isAssociatedNation(nation, b.getDefender()))
+                    sides.add(nation.getUUID());
+            }
+            views.add(new BattleView(b, Set.copyOf(sides), List.copyOf(b.getParticipants())));
+        }
+
+        return new Snapshot(sequence, Map.copyOf(nations), List.copyOf(views));
+    }
+
+    /**
+     * Computes the {@link Diff} of every battle of the {@link Snapshot}, empty if it has no changes.
+     * This only reads the snapshot, so it may run on any thread.
+     * @param snapshot the {@link Snapshot}
+     */
+    static List<Diff> compute(Snapshot snapshot) {
+        List<Diff> out = new ArrayList<>();
+
+        for (BattleView view : snapshot.battles()) {
+            Set<Player> current = new HashSet<>(view.participants());
+            List<Player> joined = new ArrayList<>();
+
+            for (var entry : snapshot.nations().entrySet()) {
+                if (!view.nations().contains(entry.getValue())) continue;
+                if (!current.remove(entry.getKey())) joined.add(entry.getKey());
+            }
+
+            // whoever is left over is no longer associated, or no longer online. An empty diff is kept,
+            // so that it still supersedes the diffs of older snapshots.
+            out.add(new Diff(snapshot.sequence(), view.battle(), joined, new ArrayList<>(current)));
+        }
+        return out;
+    }
+}
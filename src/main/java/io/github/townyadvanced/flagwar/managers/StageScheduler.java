@@ -0,0 +1,151 @@
+package io.github.townyadvanced.flagwar.managers;
+
+import com.palmergames.bukkit.towny.scheduling.ScheduledTask;
+import com.palmergames.bukkit.towny.scheduling.TaskScheduler;
+import io.github.townyadvanced.flagwar.FlagWar;
+import io.github.townyadvanced.flagwar.objects.Battle;
+import io.github.townyadvanced.flagwar.objects.BattleStage;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Advances the {@link BattleStage} of every scheduled {@link Battle} when its deadline is reached.
+ * <p>
+ * Deadlines are kept in a priority queue, and a single task is armed for the earliest one,
+ * so battles cost nothing between their deadlines. Due battles are advanced on their own region,
+ * see {@link BattleManager#runOnBattleRegion(Battle, Runnable)}, so the queue is guarded by this scheduler's monitor.
+ */
+public final class StageScheduler {
+
+    /** Holds the {@link BattleManager} instance. */
+    private final BattleManager MANAGER;
+
+    /** Holds the {@link TaskScheduler} instance. */
+    private final TaskScheduler SCHEDULER = FlagWar.getFlagWar().getScheduler();
+
+    /** Holds the number of milliseconds in a server tick. */
+    private static final long MILLIS_PER_TICK = 50L;
+
+    /** Holds every scheduled {@link Deadline}, earliest first. */
+    private final PriorityQueue<Deadline> QUEUE = new PriorityQueue<>(Comparator.comparingLong(Deadline::millis));
+
+    /** Holds the current {@link Deadline} of every scheduled {@link Battle}. */
+    private final Map<Battle, Deadline> SCHEDULED = new IdentityHashMap<>();
+
+    /** Holds the task that fires at the earliest deadline, or {@code null} if none is armed. */
+    private ScheduledTask wakeTask;
+
+    /** Holds the deadline that the {@link #wakeTask} was armed for. */
+    private long wakeMillis = Long.MAX_VALUE;
+
+    /**
+     * Holds the Unix Epoch time in milliseconds at which the current stage of a {@link Battle} ends.
+     * @param millis the deadline
+     * @param battle the {@link Battle}
+     */
+    private record Deadline(long millis, Battle battle) {}
+
+    public StageScheduler(BattleManager manager) {
+        this.MANAGER = manager;
+    }
+
+    /**
+     * Schedules the {@link Battle} to advance when its current {@link BattleStage} ends, replacing any previous deadline.
+     * Must be called whenever the stage of the battle changes.
+     * @param battle the {@link Battle}
+     */
+    public synchronized void schedule(Battle battle) {
+        long millis = battle.getStageDeadline();
+        if (millis == Long.MAX_VALUE) {
+            unschedule(battle);
+            return;
+        }
+
+        Deadline deadline = new Deadline(millis, battle);
+        Deadline previous = SCHEDULED.put(battle, deadline);
+        if (previous != null) QUEUE.remove(previous);
+        QUEUE.add(deadline);
+
+        arm();
+    }
+
+    /**
+     * Removes the deadline of the {@link Battle}, if any.
+     * @param battle the {@link Battle}
+     */
+    public synchronized void unschedule(Battle battle) {
+        Deadline previous = SCHEDULED.remove(battle);
+        if (previous != null) QUEUE.remove(previous);
+    }
+
+    /** Removes every deadline and cancels the pending task. */
+    public synchronized void stop() {
+        QUEUE.clear();
+        SCHEDULED.clear();
+        cancelWakeTask();
+    }
+
+    /** Advances every {@link Battle} whose deadline has passed on its own region, after re-arming for the next deadline. */
+    private void fire() {
+        List<Battle> due = new ArrayList<>();
+
+        synchronized (this) {
+            wakeTask = null;
+            wakeMillis = Long.MAX_VALUE;
+
+            long now = System.currentTimeMillis();
+            Deadline head;
+
+            while ((head = QUEUE.peek()) != null && head.millis() <= now) {
+                QUEUE.poll();
+                if (SCHEDULED.get(head.battle()) != head) continue;
+                SCHEDULED.remove(head.battle());
+                due.add(head.battle());
+            }
+
+            arm();
+        }
+
+        for (Battle battle : due)
+            MANAGER.runOnBattleRegion(battle, () -> advance(battle));
+    }
+
+    /**
+     * Advances the stage of the due {@link Battle}, unless it ended or its stage was restarted meanwhile.
+     * @param battle the {@link Battle}
+     */
+    private void advance(Battle battle) {
+        if (!BattleManager.isActive(battle)) return;
+
+        // advancing the stage reschedules the battle; otherwise, its stage was restarted meanwhile.
+        if (battle.isPendingStageAdvance()) battle.advanceStage(true);
+        else schedule(battle);
+    }
+
+    /** Arms the {@link #wakeTask} for the earliest deadline, unless it is already armed for that deadline or an earlier one. */
+    private void arm() {
+        Deadline head = QUEUE.peek();
+        if (head == null) {
+            cancelWakeTask();
+            return;
+        }
+
+        if (wakeTask != null && wakeMillis <= head.millis()) return;
+        cancelWakeTask();
+
+        long delayTicks = Math.max(1L, (head.millis() - System.currentTimeMillis() + MILLIS_PER_TICK - 1) / MILLIS_PER_TICK);
+        wakeMillis = head.millis();
+        wakeTask = SCHEDULER.runLater(this::fire, delayTicks);
+    }
+
+    private void cancelWakeTask() {
+        if (wakeTask != null) wakeTask.cancel();
+        wakeTask = null;
+        wakeMillis = Long.MAX_VALUE;
+    }
+}
@@ -1,5 +1,6 @@
 package io.github.townyadvanced.flagwar.managers;
 
+import io.github.townyadvanced.flagwar.FlagWar;
 import io.github.townyadvanced.flagwar.objects.CellUnderAttack;
 import org.bukkit.Bukkit;
 import org.bukkit.Color;
@@ -10,6 +11,10 @@ import town.sheepy.wayfinderAPI.WaypointService;
 import town.sheepy.wayfinderAPI.model.WaypointStyle;
 
 import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Logger;
 
 public final class WaypointManager {
@@ -23,10 +28,13 @@ public final class WaypointManager {
     /** Holds the {@link WaypointService} instance. */
     private WaypointService SERVICE;
 
+    /** Holds the {@link UUID} of every {@link Player} each waypoint is currently shown to, keyed by waypoint key. */
+    private final Map<String, Set<UUID>> VIEWERS = new ConcurrentHashMap<>();
+
     public WaypointManager(JavaPlugin plugin) {
         this.PLUGIN = plugin;
         LOGGER = plugin.getLogger();
-        Bukkit.getScheduler().runTaskLater(PLUGIN, this::assignAPI, 1);
+        FlagWar.getFlagWar().getScheduler().runLater(this::assignAPI, 1);
     }
 
     private void assignAPI() {
@@ -40,12 +48,16 @@ public final class WaypointManager {
 
         try {
 
+        String ID = toKey(c.getNameOfFlagOwner());
         SERVICE.createWaypoint(
-            toKey(c.getNameOfFlagOwner()),
+            ID,
             c.getFlagBaseBlock().getLocation(),
             Color.RED,
             WaypointStyle.FLAG,
             1000); // hardcoded for now.
+
+        // a new waypoint is not shown to anyone yet.
+        VIEWERS.put(ID, ConcurrentHashMap.newKeySet());
         } catch (IllegalArgumentException e) {
             LOGGER.warning(e.getMessage() + " The waypoint was not created.");
         }
@@ -53,26 +65,44 @@ public final class WaypointManager {
 
     public void deleteWaypoint(String flagOwner) {
         if (isAPIUnavailable()) return;
-        SERVICE.deleteWaypoint(toKey(flagOwner));
+        String ID = toKey(flagOwner);
+        VIEWERS.remove(ID);
+        SERVICE.deleteWaypoint(ID);
     }
 
+    /**
+     * Shows the waypoint of the flag owner to the players who do not see it yet.
+     * @param players the players
+     * @param flagOwner the name of the flag owner
+     */
     public void addPlayersToWaypoint(Collection<Player> players, String flagOwner) {
 
-        if (isAPIUnavailable()) return;
+        if (players.isEmpty() || isAPIUnavailable()) return;
         String ID = toKey(flagOwner);
+        Set<UUID> viewers = VIEWERS.computeIfAbsent(ID, k -> ConcurrentHashMap.newKeySet());
 
+        // the WaypointService only works per player, so only the additions are sent.
         for (Player p : players)
-            SERVICE.showWaypointToPlayer(p, ID);
+            if (viewers.add(p.getUniqueId()))
+                SERVICE.showWaypointToPlayer(p, ID);
 
     }
 
+    /**
+     * Hides the waypoint of the flag owner from the players who currently see it.
+     * @param players the players
+     * @param flagOwner the name of the flag owner
+     */
     public void removePlayersFromWaypoint(Collection<Player> players, String flagOwner) {
 
-        if (isAPIUnavailable()) return;
+        if (players.isEmpty() || isAPIUnavailable()) return;
         String ID = toKey(flagOwner);
+        Set<UUID> viewers = VIEWERS.get(ID);
+        if (viewers == null) return;
 
         for (Player p : players)
-            SERVICE.hideWaypointFromPlayer(p, ID);
+            if (viewers.remove(p.getUniqueId()))
+                SERVICE.hideWaypointFromPlayer(p, ID);
     }
 
     private String toKey(String flagOwner) {
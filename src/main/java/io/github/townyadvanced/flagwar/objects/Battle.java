@@ -5,24 +5,24 @@ import com.palmergames.bukkit.towny.TownyAPI;
 import com.palmergames.bukkit.towny.TownyMessaging;
 import com.palmergames.bukkit.towny.object.*;
 import com.palmergames.bukkit.towny.utils.TownRuinUtil;
-import io.github.townyadvanced.flagwar.BannerWarAPI;
 import io.github.townyadvanced.flagwar.worldedit.WorldEditService;
 import io.github.townyadvanced.flagwar.events.BattlePrematureEndEvent;
 import io.github.townyadvanced.flagwar.managers.BattleManager;
+import io.github.townyadvanced.flagwar.managers.BossBarService;
 import io.github.townyadvanced.flagwar.FlagWar;
 import io.github.townyadvanced.flagwar.events.BattleEndEvent;
 import io.github.townyadvanced.flagwar.events.BattleFlaggableEvent;
 import io.github.townyadvanced.flagwar.events.BattleRuinEvent;
 import io.github.townyadvanced.flagwar.util.BattleUtil;
+import io.github.townyadvanced.flagwar.util.LongObjectMap;
 import org.bukkit.Bukkit;
-import org.bukkit.boss.BarColor;
-import org.bukkit.boss.BarStyle;
-import org.bukkit.boss.BossBar;
+import org.bukkit.Location;
 import org.bukkit.entity.Player;
 import org.jetbrains.annotations.NotNull;
 
 import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 /** Contains all the information required to host a BannerWar battle. */
 public class Battle {
@@ -35,9 +35,15 @@ public class Battle {
     /** Holds the {@link Town} at which the battle is held. */
     private final Town CONTESTED_TOWN;
 
-    /** Holds a {@link List} of {@link String}s of every player that has placed a {@link CellUnderAttack} relevant to this battle. */
+    /**
+     * Holds a {@link List} of {@link String}s of every player that has placed a {@link CellUnderAttack} relevant to this battle.
+     * Guarded, together with {@link #FLAG_CELLS}, by the lock of {@link #FLAG_CELLS}, as flags are placed and lost on their own regions.
+     */
     private final List<String> flags;
 
+    /** Holds every {@link CellUnderAttack} relevant to this battle, keyed by its packed cell coordinates. See {@link BattleUtil#pack(int, int)}. */
+    private final LongObjectMap<CellUnderAttack> FLAG_CELLS = new LongObjectMap<>();
+
     /** Holds the {@link WorldCoord} of the critical {@link TownBlock} that, when won, ends the battle. */
     private final WorldCoord HOME_BLOCK_COORDS;
 
@@ -59,12 +65,30 @@ public class Battle {
     /** Holds whether this battle's {@link #CONTESTED_TOWN} is a City State or not. */
     private final boolean isCityState;
 
-    /** Holds the {@link BossBar} of this battle. */
-    private BossBar bossBar;
+    /** Holds every online {@link Player} associated with this battle, as maintained by the {@link BattleManager}. */
+    private final Set<Player> PARTICIPANTS = ConcurrentHashMap.newKeySet();
 
     /** Holds the {@link BattleManager} instance. */
     private final BattleManager MANAGER;
 
+    /** Holds the version stamp of Towny's town block data; bumping it invalidates the resolved town blocks of every battle. */
+    private static volatile int townBlockVersion = 0;
+
+    /** Holds the resolved {@link TownBlock}s of the {@link #INITIAL_TOWN_BLOCK_COORDS}, or {@code null} if they must be resolved again. Guarded by this battle. */
+    private List<TownBlock> resolvedTownBlocks;
+
+    /** Holds the {@link #townBlockVersion} at which the {@link #resolvedTownBlocks} were resolved. */
+    private int resolvedTownBlockVersion;
+
+    /** Holds the position of every {@link #INITIAL_TOWN_BLOCK_COORDS} entry, keyed by its packed coordinates. See {@link BattleUtil#pack(int, int)}. */
+    private final LongObjectMap<Integer> COORD_POSITIONS;
+
+    /** Holds a bit for every {@link #INITIAL_TOWN_BLOCK_COORDS} entry, in iteration order, which is set when that town block is captured. Guarded by its own lock. */
+    private final BitSet CAPTURED;
+
+    /** Holds whether this battle has changed since it was last written to the database. */
+    private volatile boolean dirty;
+
     /**
      * Sets up a battle between an attacking nation and a defending nation. <br>
      * @param attacker the attacking nation
@@ -83,6 +107,8 @@ public class Battle {
         this.CONTESTED_TOWN = contestedTown;
         this.flags = new ArrayList<>(); // every flag is lost after a resume.
         this.INITIAL_TOWN_BLOCK_COORDS = preWarBlocks;
+        this.COORD_POSITIONS = new LongObjectMap<>(preWarBlocks.size());
+        this.CAPTURED = new BitSet(preWarBlocks.size());
         this.stageStartTimeMillis = stm;
         this.isCityState = isCityState;
         this.stage = stage;
@@ -91,7 +117,12 @@ public class Battle {
         this.STAGE_DURATIONS = BattleUtil.computeStageTimes(this);
         this.MANAGER = mgr;
 
-        createBossBar();
+        int position = 0;
+        for (var wc : INITIAL_TOWN_BLOCK_COORDS)
+            COORD_POSITIONS.put(BattleUtil.pack(wc.getX(), wc.getZ()), position++);
+
+        // a resumed battle may already have lost some of its town blocks.
+        refreshCaptured();
 
         var chunks = BattleUtil.chunksFrom(getInitialTownBlocks());
         WorldEditService.copyToDisk(CONTESTED_TOWN, BattleUtil.boundingBoxFrom(chunks));
@@ -120,6 +151,9 @@ public class Battle {
             contestedTown.getMayor(),
             mgr
         );
+
+        // a new battle has never been written to the database.
+        markDirty();
     }
 
     /**
@@ -162,6 +196,16 @@ public class Battle {
         return HOME_BLOCK_COORDS;
     }
 
+    /**
+     * Returns a {@link Location} at the center of the home block of the town where the battle is held.
+     * The region that owns this location runs the work of this battle; see {@link BattleManager#runOnBattleRegion(Battle, Runnable)}.
+     */
+    public Location getHomeLocation() {
+        int size = Coord.getCellSize();
+        return new Location(HOME_BLOCK_COORDS.getBukkitWorld(),
+            HOME_BLOCK_COORDS.getX() * size + size / 2.0, 0, HOME_BLOCK_COORDS.getZ() * size + size / 2.0);
+    }
+
 
     /** Returns the town where the battle is held. */
     public Town getContestedTown() {
@@ -181,21 +225,41 @@ public class Battle {
         return STAGE_DURATIONS.getOrDefault(s, null);
     }
 
-    /** Returns the {@link Collection} of {@link TownBlock}s that belonged to this {@link #CONTESTED_TOWN} before the battle. */
-    public Collection<TownBlock> getInitialTownBlocks() {
+    /**
+     * Returns the {@link List} of {@link TownBlock}s that belonged to this {@link #CONTESTED_TOWN} before the battle.
+     * <p>
+     * The returned list is unmodifiable and cached until {@link #invalidateTownBlocks()} or {@link #invalidateAllTownBlocks()} is called.
+     * A {@link WorldCoord} that is no longer claimed resolves to {@code null}.
+     */
+    public synchronized List<TownBlock> getInitialTownBlocks() {
 
         // town blocks are not reliable; for some reason some player actions mutate them such that they are no longer
         // equal to the initial town blocks, messing up battle lookups
 
         // the only thing that remains constant is their WorldCoord, because god knows.
 
-        Collection<TownBlock> out = new ArrayList<>();
+        if (resolvedTownBlocks == null || resolvedTownBlockVersion != townBlockVersion) {
+            List<TownBlock> out = new ArrayList<>(INITIAL_TOWN_BLOCK_COORDS.size());
+
+            for (var WC : INITIAL_TOWN_BLOCK_COORDS) {
+                out.add(TownyAPI.getInstance().getTownBlock(WC));
+            }
 
-        for (var WC : INITIAL_TOWN_BLOCK_COORDS) {
-            out.add(TownyAPI.getInstance().getTownBlock(WC));
+            resolvedTownBlocks = Collections.unmodifiableList(out);
+            resolvedTownBlockVersion = townBlockVersion;
         }
 
-        return out;
+        return resolvedTownBlocks;
+    }
+
+    /** Discards the cached {@link TownBlock}s of this battle, e.g. after one of its {@link #INITIAL_TOWN_BLOCK_COORDS} is claimed, unclaimed or transferred. */
+    public synchronized void invalidateTownBlocks() {
+        resolvedTownBlocks = null;
+    }
+
+    /** Discards the cached {@link TownBlock}s of every battle, e.g. after Towny reloads its database. */
+    public static void invalidateAllTownBlocks() {
+        townBlockVersion++;
     }
 
     /** Returns the {@link #INITIAL_TOWN_BLOCK_COORDS}. */
@@ -205,10 +269,86 @@ public class Battle {
 
     /** Returns the {@link Collection} of {@link TownBlock}s that have been captured by the {@link #ATTACKER} during the battle. */
     public Collection<TownBlock> getCapturedTownBlocks() {
-        Collection<TownBlock> out = getInitialTownBlocks();
-        out.removeAll(getContestedTown().getTownBlocks());
+        List<TownBlock> initial = getInitialTownBlocks();
+
+        synchronized (CAPTURED) {
+            Collection<TownBlock> out = new ArrayList<>(CAPTURED.cardinality());
 
-        return out;
+            for (int i = CAPTURED.nextSetBit(0); i >= 0; i = CAPTURED.nextSetBit(i + 1))
+                out.add(initial.get(i));
+
+            return out;
+        }
+    }
+
+    /** Returns the number of initial {@link TownBlock}s that have been captured by the {@link #ATTACKER} during the battle. */
+    public int getCapturedCount() {
+        synchronized (CAPTURED) {
+            return CAPTURED.cardinality();
+        }
+    }
+
+    /**
+     * Returns whether the initial {@link TownBlock} at the specified coordinates has been captured by the {@link #ATTACKER} during the battle.
+     * @param x the X coordinate
+     * @param z the Z coordinate
+     */
+    public boolean isCaptured(int x, int z) {
+        Integer position = COORD_POSITIONS.get(BattleUtil.pack(x, z));
+        if (position == null) return false;
+
+        synchronized (CAPTURED) {
+            return CAPTURED.get(position);
+        }
+    }
+
+    /**
+     * Returns whether the {@link TownBlock} is an initial town block that has been captured by the {@link #ATTACKER} during the battle.
+     * @param townBlock the {@link TownBlock}
+     */
+    public boolean isCaptured(TownBlock townBlock) {
+        return townBlock != null && isCaptured(townBlock.getX(), townBlock.getZ());
+    }
+
+    /**
+     * Re-reads the ownership of the initial {@link TownBlock} at this {@link WorldCoord}, and marks it captured
+     * if it no longer belongs to the {@link #CONTESTED_TOWN}. Does nothing if it is not an initial town block.
+     * @param wc the {@link WorldCoord} whose ownership changed
+     */
+    public void refreshCaptured(WorldCoord wc) {
+        Integer position = COORD_POSITIONS.get(BattleUtil.pack(wc.getX(), wc.getZ()));
+        if (position == null) return;
+
+        boolean lost = isLost(TownyAPI.getInstance().getTownBlock(wc));
+        synchronized (CAPTURED) {
+            if (CAPTURED.get(position) == lost) return;
+            CAPTURED.set(position, lost);
+        }
+        markDirty();
+    }
+
+    /** Re-reads the ownership of every initial {@link TownBlock}, see {@link #refreshCaptured(WorldCoord)}. */
+    private void refreshCaptured() {
+        BitSet captured = new BitSet(INITIAL_TOWN_BLOCK_COORDS.size());
+
+        int position = 0;
+        for (var tb : getInitialTownBlocks()) {
+            if (isLost(tb)) captured.set(position);
+            position++;
+        }
+
+        synchronized (CAPTURED) {
+            CAPTURED.clear();
+            CAPTURED.or(captured);
+        }
+    }
+
+    /**
+     * Returns whether the {@link TownBlock} no longer belongs to the {@link #CONTESTED_TOWN}.
+     * @param tb the {@link TownBlock}, or {@code null} if unclaimed
+     */
+    private boolean isLost(TownBlock tb) {
+        return tb == null || CONTESTED_TOWN == null || !CONTESTED_TOWN.equals(tb.getTownOrNull());
     }
 
     /** Returns the {@link Duration} left for the current {@link BattleStage}.
@@ -220,6 +360,15 @@ public class Battle {
         return remainingTime.isNegative() ? Duration.ZERO : remainingTime;
     }
 
+    /**
+     * Returns the Unix Epoch time in milliseconds at which the current {@link BattleStage} ends,
+     * or {@link Long#MAX_VALUE} if it has no duration.
+     */
+    public long getStageDeadline() {
+        Duration duration = getDuration(getCurrentStage());
+        return duration == null ? Long.MAX_VALUE : stageStartTimeMillis + duration.toMillis();
+    }
+
     /** Returns whether more time has elapsed than the duration of a {@link BattleStage} of this battle. */
     public boolean isPendingStageAdvance() {
         return getTimeRemainingForCurrentStage().isZero();
@@ -242,6 +391,24 @@ public class Battle {
     public void setStage(BattleStage stage) {
         stageStartTimeMillis = System.currentTimeMillis();
         this.stage = stage;
+        markDirty();
+        MANAGER.scheduleStageAdvance(this);
+        BossBarService.onStageChanged(this);
+    }
+
+    /** Returns whether this battle has changed since it was last written to the database. */
+    public boolean isDirty() {
+        return dirty;
+    }
+
+    /** Marks this battle as changed, so that it is written to the database on the next update. */
+    public void markDirty() {
+        dirty = true;
+    }
+
+    /** Marks this battle as written to the database. */
+    public void clearDirty() {
+        dirty = false;
     }
 
     /** Returns whether this battle's {@link #CONTESTED_TOWN} is a City State or not. */
@@ -250,17 +417,27 @@ public class Battle {
     }
 
     /** Adds a new flag to the list of flags.
-     * @param name the name of the flag owner
+     * @param cell the {@link CellUnderAttack} of the flag
      */
-    public void addFlag(String name) {
-        flags.add(name);
+    public void addFlag(CellUnderAttack cell) {
+        synchronized (FLAG_CELLS) {
+            flags.add(cell.getNameOfFlagOwner());
+            FLAG_CELLS.put(BattleUtil.pack(cell.getX(), cell.getZ()), cell);
+        }
     }
 
     /** Removes an existing flag from the list of flags.
-     * @param name the name of the flag owner
+     * @param cell the {@link Cell} of the flag
+     * @return the name of the flag owner, or {@code null} if this battle has no flag at this cell
      */
-    public void removeFlag(String name) {
-        flags.remove(name);
+    public String removeFlag(Cell cell) {
+        synchronized (FLAG_CELLS) {
+            CellUnderAttack removed = FLAG_CELLS.remove(BattleUtil.pack(cell.getX(), cell.getZ()));
+            if (removed == null) return null;
+
+            flags.remove(removed.getNameOfFlagOwner());
+            return removed.getNameOfFlagOwner();
+        }
     }
 
     /**
@@ -321,7 +498,7 @@ public class Battle {
     }
 
     /**
-     * Deletes the {@link Battle#bossBar} and sets the {@link Battle#stage} to {@link BattleStage#DORMANT}.
+     * Deletes the boss bar and sets the {@link Battle#stage} to {@link BattleStage#DORMANT}.
      * This effectively ends the battle and begins the battle cooldown.
      */
     private void makeDormant() {
@@ -356,9 +533,16 @@ public class Battle {
      * such as transferring ownership of {@link TownBlock}s back and cancelling ongoing flags. */
     private void endWarProcedures() {
 
-        for (String n : flags) FlagWar.removeAttackerFlags(n);
+        List<String> owners;
+        synchronized (FLAG_CELLS) {
+            owners = List.copyOf(flags);
+            flags.clear();
+            FLAG_CELLS.clear();
+        }
+        for (String n : owners) FlagWar.removeAttackerFlags(n);
 
         transferBlockOwnership(getContestedTown(), getInitialTownBlocks(), getHomeBlock());
+        refreshCaptured();
     }
 
     /**
@@ -374,7 +558,10 @@ public class Battle {
                 tb.save();
             }
 
+            invalidateTownBlocks();
+
             town.setHomeBlock(homeBlock);
+            markDirty();
 
         } catch (Exception E) {
             // Couldn't claim it.
@@ -383,53 +570,40 @@ public class Battle {
         }
     }
 
+    /** Returns an unmodifiable view of every online {@link Player} associated with this battle. */
+    public Set<Player> getParticipants() {
+        return Collections.unmodifiableSet(PARTICIPANTS);
+    }
+
     /**
-     * Creates the {@link Battle#bossBar}.
+     * Adds the {@link Player} to the participants of this battle, and shows them the boss bar of this battle.
+     * @param p the {@link Player}
+     * @return whether the player was not already a participant
      */
-    private void createBossBar() {
-
-        String bossBarMessage = "[BATTLE] %s - %s"; // probably going to make this configurable?
-
-        bossBar = Bukkit.createBossBar(
-            String.format(bossBarMessage, getContestedTown().getName(), getCurrentStage().name().toUpperCase()),
-            BarColor.RED,
-            BarStyle.SOLID
-        );
+    @CanIgnoreReturnValue
+    public boolean addParticipant(Player p) {
+        if (!PARTICIPANTS.add(p)) return false;
+        BossBarService.addViewer(this, p);
+        return true;
     }
 
     /**
-     * Updates the {@link Battle#bossBar}.
+     * Removes the {@link Player} from the participants of this battle, and hides the boss bar of this battle from them.
+     * @param p the {@link Player}
+     * @return whether the player was a participant
      */
-    public void updateBossBar() {
-
-        if (getCurrentStage() == BattleStage.DORMANT) return;
-
-        String bossBarMessage = "[BATTLE] %s - %s"; // probably going to make this configurable?
-
-        if (bossBar == null) return;
-
-        bossBar.setProgress(1.0 - (
-            (double) getTimeRemainingForCurrentStage().toSeconds() / getDuration(getCurrentStage()).toSeconds())
-        );
-
-        bossBar.setTitle(
-            String.format(bossBarMessage, getContestedTown().getName(), getCurrentStage().name().toUpperCase().replace("_", " "))
-        );
-
-        for (Player p : Bukkit.getServer().getOnlinePlayers()) {
-            Resident r = TownyAPI.getInstance().getResident(p);
-            if (BannerWarAPI.isAssociatedWithBattle(r, this)) bossBar.addPlayer(p);
-            else bossBar.removePlayer(p);
-        }
+    @CanIgnoreReturnValue
+    public boolean removeParticipant(Player p) {
+        if (!PARTICIPANTS.remove(p)) return false;
+        BossBarService.removeViewer(this, p);
+        return true;
     }
 
     /**
-     * Deletes the {@link Battle#bossBar}.
+     * Deletes the boss bar of this battle, see {@link BossBarService#delete(Battle)}.
      */
     public void deleteBossBar() {
-        if (bossBar == null) return;
-        bossBar.removeAll();
-        bossBar = null;
+        BossBarService.delete(this);
     }
 
 
@@ -439,30 +613,20 @@ public class Battle {
      * @param z the Z coordinate
      */
     public CellUnderAttack getCellUnderAttack(int x, int z) {
-
-        if (flags.isEmpty()) return null;
-
-        for (var name : flags) {
-
-            var cuas = FlagWar.getCellsUnderAttackByPlayer(name);
-
-            if (!cuas.isEmpty()) {
-                CellUnderAttack cua = cuas.get(0); // there is only one flag per player.
-
-                if (cua.getX() == x && cua.getZ() == z)
-                    return cua;
-            }
+        synchronized (FLAG_CELLS) {
+            return FLAG_CELLS.get(BattleUtil.pack(x, z));
         }
-
-        return null;
     }
 
     /**
      * Gets every flag's flag owner associated with this {@link Battle},
      * where the {@link CellUnderAttack} can be looked up using {@link FlagWar#getCellsUnderAttackByPlayer(String)}.
+     * The returned collection is an immutable snapshot, safe to use on any thread.
      */
     public Collection<String> getFlagOwners() {
-        return flags;
+        synchronized (FLAG_CELLS) {
+            return List.copyOf(flags);
+        }
     }
 
     /** Returns whether the {@link #stage} of this battle is equal to the {@link BattleStage#FLAG} stage.*/
@@ -3,7 +3,6 @@ package io.github.townyadvanced.flagwar.objects;
 import com.palmergames.bukkit.towny.object.TownBlock;
 import com.palmergames.bukkit.towny.object.WorldCoord;
 import io.github.townyadvanced.flagwar.FlagWar;
-import io.github.townyadvanced.flagwar.util.BattleUtil;
 import org.bukkit.plugin.java.JavaPlugin;
 
 import java.util.Collection;
@@ -49,7 +48,7 @@ public record BattleRecord (
                 b.isCityState(),
                 b.getCurrentStage(),
                 b.getContestedTown().getWorld().getUID(),
-                BattleUtil.toWorldCoords(b.getInitialTownBlocks()),
+                b.getInitialTownBlocksAsWorldCoords(),
                 b.getInitialMayor().getUUID()
             );
         } catch (Exception e)  {
@@ -0,0 +1,45 @@
+package io.github.townyadvanced.flagwar.objects;
+
+/**
+ * Holds the side of a {@link Battle} that a resident is associated with,
+ * by being part of, or allied with, the attacking or defending nation.
+ */
+public enum BattleSide {
+
+    /** The resident is associated with the attacker only. */
+    ATTACKER,
+
+    /** The resident is associated with the defender only. */
+    DEFENDER,
+
+    /** The resident is associated with both the attacker and the defender, e.g. through alliances. */
+    BOTH,
+
+    /** The resident is associated with neither side. */
+    NONE;
+
+    /**
+     * Returns the {@link BattleSide} matching the specified associations.
+     * @param attacker whether the resident is associated with the attacker
+     * @param defender whether the resident is associated with the defender
+     */
+    public static BattleSide of(boolean attacker, boolean defender) {
+        if (attacker) return defender ? BOTH : ATTACKER;
+        return defender ? DEFENDER : NONE;
+    }
+
+    /** Returns whether this side includes the attacker. */
+    public boolean isAttacker() {
+        return this == ATTACKER || this == BOTH;
+    }
+
+    /** Returns whether this side includes the defender. */
+    public boolean isDefender() {
+        return this == DEFENDER || this == BOTH;
+    }
+
+    /** Returns whether this side includes the attacker, the defender, or both. */
+    public boolean isParticipant() {
+        return this != NONE;
+    }
+}
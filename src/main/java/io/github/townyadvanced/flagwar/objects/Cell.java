@@ -18,7 +18,11 @@
 package io.github.townyadvanced.flagwar.objects;
 
 import io.github.townyadvanced.flagwar.FlagWarAPI;
+import io.github.townyadvanced.flagwar.util.BattleUtil;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.bukkit.Location;
 
 import com.palmergames.bukkit.towny.object.Coord;
@@ -34,6 +38,12 @@ public class Cell {
     private final int xVal;
     /** Holds the Cell's associated z coordinate value. */
     private final int zVal;
+    /** Holds the interned index of the Cell's associated world, see {@link #worldIndexOf(String)}. */
+    private final int worldIndex;
+    /** Holds the interned index of every world name a Cell has been created for. */
+    private static final Map<String, Integer> WORLD_INDICES = new ConcurrentHashMap<>();
+    /** Holds the index that will be given to the next interned world name. */
+    private static final AtomicInteger NEXT_WORLD_INDEX = new AtomicInteger();
     /** Holds the base value for calculating the Cell's {@link #hashCode()}. */
     private static final int HASH_BASE = 17;
     /** Holds the multiplier value for calculating the Cell's {@link #hashCode()}. */
@@ -52,6 +62,7 @@ public class Cell {
         cellsWorldName = worldName;
         xVal = x;
         zVal = z;
+        worldIndex = worldIndexOf(worldName);
     }
 
     /**
@@ -63,6 +74,7 @@ public class Cell {
         cellsWorldName = cell.getWorldName();
         xVal = cell.getX();
         zVal = cell.getZ();
+        worldIndex = cell.getWorldIndex();
     }
 
     /**
@@ -88,6 +100,39 @@ public class Cell {
         return cellsWorldName;
     }
 
+    /** @return the {@link #worldIndex} value of the {@link Cell}. */
+    public int getWorldIndex() {
+        return worldIndex;
+    }
+
+    /** @return the {@link #xVal} and {@link #zVal} of the {@link Cell}, packed by {@link BattleUtil#pack(int, int)}. */
+    public long getPackedCoords() {
+        return BattleUtil.pack(xVal, zVal);
+    }
+
+    /**
+     * Interns a world name into a small, stable index, so that cells can be keyed by primitives.
+     * @param worldName the name of the {@link org.bukkit.World}, which may be null.
+     * @return the index of the world name, or -1 if it is null.
+     */
+    public static int worldIndexOf(final String worldName) {
+        if (worldName == null) {
+            return -1;
+        }
+        Integer index = WORLD_INDICES.get(worldName);
+        return index != null ? index : WORLD_INDICES.computeIfAbsent(worldName, k -> NEXT_WORLD_INDEX.getAndIncrement());
+    }
+
+    /**
+     * Converts a block coordinate into a cell coordinate, adjusted for the appropriate Cell Size
+     * ({@link Coord#getCellSize}).
+     * @param blockCoord the block x or z value.
+     * @return the matching cell x or z value.
+     */
+    public static int toCellCoord(final int blockCoord) {
+        return Math.floorDiv(blockCoord, Coord.getCellSize());
+    }
+
     /**
      * Parse raw {@link #xVal} and {@link #zVal}, as well as the world name to construct a new Cell.
      * @param worldName the name of the {@link org.bukkit.World} the cell is found in.
@@ -97,12 +142,7 @@ public class Cell {
      * ({@link Coord#getCellSize}).
      */
     public static Cell parse(final String worldName, final int x, final int z) {
-        int cellSize = Coord.getCellSize();
-        int xResult = x / cellSize;
-        int zResult = z / cellSize;
-        boolean xNeedFix = x % cellSize != 0;
-        boolean zNeedFix = z % cellSize != 0;
-        return new Cell(worldName, xResult - (x < 0 && xNeedFix ? 1 : 0), zResult - (z < 0 && zNeedFix ? 1 : 0));
+        return new Cell(worldName, toCellCoord(x), toCellCoord(z));
     }
 
     /**
@@ -124,10 +164,10 @@ public class Cell {
         return parse(world.getName(), loc.getBlockX(), loc.getBlockZ());
     }
 
-    /** @return a hash for the {@link Cell} using the {@link #xVal}, {@link #zVal}, and {@link #cellsWorldName}. */
+    /** @return a hash for the {@link Cell} using the {@link #xVal}, {@link #zVal}, and {@link #worldIndex}. */
     @Override
     public int hashCode() {
-        int hash = HASH_BASE * HASH_MULTIPLIER + (cellsWorldName == null ? 0 : cellsWorldName.hashCode());
+        int hash = HASH_BASE * HASH_MULTIPLIER + worldIndex;
         hash = hash * HASH_MULTIPLIER + xVal;
         hash = hash * HASH_MULTIPLIER + zVal;
         return hash;
@@ -146,7 +186,7 @@ public class Cell {
         if (!(obj instanceof Cell that)) {
             return false;
         }
-        return xVal == that.xVal && zVal == that.zVal && (Objects.equals(this.cellsWorldName, that.cellsWorldName));
+        return xVal == that.xVal && zVal == that.zVal && worldIndex == that.worldIndex;
     }
 
     /**
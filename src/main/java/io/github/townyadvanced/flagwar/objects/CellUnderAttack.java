@@ -17,16 +17,15 @@
 
 package io.github.townyadvanced.flagwar.objects;
 
-import com.palmergames.bukkit.towny.scheduling.ScheduledTask;
 import io.github.townyadvanced.flagwar.BannerWarAPI;
 import io.github.townyadvanced.flagwar.config.BannerWarConfig;
 import io.github.townyadvanced.flagwar.util.*;
 import com.palmergames.bukkit.towny.object.Coord;
-import com.palmergames.bukkit.towny.scheduling.TaskScheduler;
 
 import io.github.townyadvanced.flagwar.FlagWar;
 import io.github.townyadvanced.flagwar.config.FlagWarConfig;
 import io.github.townyadvanced.flagwar.i18n.Translate;
+import io.github.townyadvanced.flagwar.managers.FlagClock;
 import org.bukkit.ChatColor;
 import org.bukkit.Location;
 import org.bukkit.Material;
@@ -47,9 +46,6 @@ public class CellUnderAttack extends Cell {
     /** Holds an instance of FlagWar's logger. */
     private static final Logger LOGGER = FlagWar.getInstance().getLogger();
 
-    /** The TaskScheduler used to schedule attacks and holograms. */
-    private final TaskScheduler scheduler = FlagWar.getFlagWar().getScheduler();
-
     /** Holds the name of the war flag owner. */
     private final String nameOfFlagOwner;
 
@@ -65,6 +61,15 @@ public class CellUnderAttack extends Cell {
     /** Holds the value between timer phases for both the war flag and the beacon. */
     private final Duration flagPhaseDuration;
 
+    /** Holds the string "'WORLD_NAME' ('X', 'Z')", see {@link #getCellString()}. */
+    private final String cellString;
+
+    /**
+     * Holds the key of the hologram of this cell, see {@link #getCellHologramKey()}. Computed once, and derived only
+     * from the cell, so a stale hologram left at the same cell is found again under the same key.
+     */
+    private final String hologramKey;
+
     // /** {@link List} of {@link Block}s used in the war beacon's body. */
     // private List<Block> beaconFlagBlocks;
 
@@ -74,11 +79,11 @@ public class CellUnderAttack extends Cell {
     /** Identifies the phase the war flag is in.*/
     private int flagPhaseID;
 
-    /** Holds the time, in seconds, assuming 20 ticks is 1 second, that the war flag has left. */
-    private Duration flagTimeLeft;
+    /** Holds the {@link FlagClock#now()} reading, in nanoseconds, at which the attack began. */
+    private long startNanos = FlagClock.now();
 
-    /** Holds the time, in seconds, assuming 20 ticks is 1 second, that have elapsed since the flag was placed. */
-    private Duration flagTimeElapsed = Duration.ZERO;
+    /** Holds the total lifetime of the war flag, in nanoseconds, including every extension; see {@link #getTimeLeftNanos()}. */
+    private long lifetimeNanos;
 
     /** Holds the number of lives the {@link CellUnderAttack} has. */
     private int lives = 1;
@@ -86,14 +91,8 @@ public class CellUnderAttack extends Cell {
     /** Holds the number of extra lives that have been added to the {@link CellUnderAttack} since its construction. */
     private int lifeAdditions = 0;
 
-    /** Holds the repeating {@link ScheduledTask} that updates the hologram. */
-    private ScheduledTask hologramUpdateTask;
-
-    /** Holds the repeating {@link ScheduledTask} that updates the time left. */
-    private ScheduledTask updateTimeTask;
-
-    /** Holds the {@link ScheduledTask} that handles flag updates. */
-    private ScheduledTask flagUpdateTask;
+    /** Holds the {@link FlagClock.Timer} of the next flag update. */
+    private FlagClock.Timer flagUpdateTask;
 
     /** Holds the number of lives left required to initiate the {@link CivicsUtil#INFERNAL_WARFLAGS} CivTech, assuming the {@link #nameOfFlagOwner} has it. */
     private static final int LIVES_TO_INFERNAL = 3;
@@ -112,13 +111,15 @@ public class CellUnderAttack extends Cell {
     public CellUnderAttack(final String flagOwner, final Block base, final Duration timerPhase, Battle battle) {
 
         super(base.getLocation());
-        this.flagTimeLeft = FlagWarConfig.getFlagLifeTime();
+        this.cellString = String.format("%s (%d, %d)", getWorldName(), getX(), getZ());
+        this.hologramKey = getFixedHash(cellString);
+        this.lifetimeNanos = FlagWarConfig.getFlagLifeTime().toNanos();
         this.flagPhaseDuration = timerPhase;
 
         if (CivicsUtil.isTechPresent(CivicsUtil.ATTRITION_DOCTRINE, battle.getInitialMayor())
             && BannerWarAPI.isAssociatedWithAttacker(flagOwner, battle))
         {
-            flagTimeLeft = flagTimeLeft.plusSeconds(BannerWarConfig.getAttritionFlagLifeTimeIncrease());
+            extendLifetime(BannerWarConfig.getAttritionFlagLifeTimeIncrease());
         }
 
         this.nameOfFlagOwner = flagOwner;
@@ -260,10 +261,39 @@ public class CellUnderAttack extends Cell {
     }
 
     /**
-     * @return True if the {@link #flagTimeLeft} is negative or zero.
+     * @return True if the time left, see {@link #getTimeLeftNanos()}, is negative or zero.
      */
     public boolean hasEnded() {
-        return (flagTimeLeft.isNegative() || flagTimeLeft.isZero());
+        return getTimeLeftNanos() <= 0;
+    }
+
+    /**
+     * @return the time, in nanoseconds, that has elapsed since the attack began.
+     */
+    public long getTimeElapsedNanos() {
+        return FlagClock.now() - startNanos;
+    }
+
+    /**
+     * @return the time, in nanoseconds, that the war flag has left; derived from the monotonic clock, so it does not drift.
+     */
+    public long getTimeLeftNanos() {
+        return lifetimeNanos - getTimeElapsedNanos();
+    }
+
+    /**
+     * @return the time that the war flag has left, as a {@link Duration}.
+     */
+    public Duration getTimeLeft() {
+        return Duration.ofNanos(getTimeLeftNanos());
+    }
+
+    /**
+     * Extends the lifetime of the war flag.
+     * @param seconds the extension, in seconds
+     */
+    private void extendLifetime(final long seconds) {
+        lifetimeNanos += Duration.ofSeconds(seconds).toNanos();
     }
 
     /**
@@ -326,49 +356,41 @@ public class CellUnderAttack extends Cell {
     }
 
     /**
-     * Off-loaded to {@link HologramUtil#updateHologramTimer(String, Duration)}.
+     * Draws the hologram of this flag, showing the time it has left, through the current
+     * {@link io.github.townyadvanced.flagwar.hologram.HologramProvider}; e.g. again after the provider changed.
      */
-    public void taskUpdateHologram() {
-        HologramUtil.updateHologramTimer(getCellHologramKey(), flagTimeLeft);
+    public void drawHologram() {
+        HologramUtil.drawHologram(getCellHologramKey(), flagLightBlock.getLocation(), getTimeLeft());
     }
 
     /**
-     * Draw the initial phase of the flag and jump-start both the {@link #flagUpdateTask} and {@link #hologramUpdateTask}.
+     * Draw the initial phase of the flag, jump-start the {@link #flagUpdateTask}, and draw the hologram.
      * <p>
-     * Uses the {@link #flagPhaseDuration} as both the repeat delay and runtime period for the {@link #flagUpdateTask}.
-     * The delay and period are derived from the phase duration in milliseconds, divided by 50.
-     * This value is floored to the last tick, and is not rounded.
+     * Starts the clock of the flag, and schedules the {@link #flagUpdateTask} on the {@link FlagClock}
+     * after the {@link #flagPhaseDuration}.
      * </p>
      * <p>
      * If {@link FlagWarConfig#isHologramEnabled()} returns true, draws a hologram, and if
-     * {@link FlagWarConfig#hasTimerLine()} returns true, also start a {@link #hologramUpdateTask}, with
-     * 20 ticks as both the repeat delay and runtime timer.
+     * {@link FlagWarConfig#hasTimerLine()} returns true, also has the {@link HologramUpdater} refresh its timer.
      * </p>
      */
     public void beginAttack() {
         drawFlag();
-        final int milliTicks = 50;
-        final long ticksFromMs = this.flagPhaseDuration.toMillis() / milliTicks;
-        flagUpdateTask = scheduler.runLater(this::updateCell, ticksFromMs);
-
-        updateTimeTask =
-            scheduler.runRepeating(() -> {
-                flagTimeElapsed = flagTimeElapsed.plusMillis(50);
-                flagTimeLeft = flagTimeLeft.minusMillis(50);
-            }, 1, 1);
+        startNanos = FlagClock.now();
+        flagUpdateTask = FlagClock.schedule(flagBaseBlock.getLocation(), this::updateCell, flagPhaseDuration.toNanos());
 
         if (FlagWarConfig.isHologramEnabled()) {
-            HologramUtil.drawHologram(getCellHologramKey(), flagLightBlock.getLocation(), flagTimeLeft);
+            drawHologram();
 
             if (FlagWarConfig.hasTimerLine()) {
-                hologramUpdateTask = scheduler.runRepeating(this::taskUpdateHologram, 5, 5);
+                HologramUpdater.track(this);
             }
         }
     }
 
     /**
      * Cancels the {@link #flagUpdateTask}, started in {@link #beginAttack()}. Then runs {@link #destroyFlag()}.
-     * Also cancels the {@link #hologramUpdateTask}, if running, and destroys the Hologram, if it
+     * Also stops the {@link HologramUpdater} from refreshing the timer, and destroys the Hologram, if it
      * exists, using {@link HologramUtil#destroyHologram(String)}.
      */
     public void cancel() {
@@ -376,13 +398,7 @@ public class CellUnderAttack extends Cell {
             flagUpdateTask.cancel();
         }
 
-        if (FlagWarConfig.isHologramEnabled() && hologramUpdateTask != null) {
-            hologramUpdateTask.cancel();
-        }
-
-        if (updateTimeTask != null) {
-            updateTimeTask.cancel();
-        }
+        HologramUpdater.untrack(this);
 
         destroyFlag();
         HologramUtil.destroyHologram(getCellHologramKey());
@@ -412,17 +428,17 @@ public class CellUnderAttack extends Cell {
     }
 
     /**
-     * @return the hashed hologram key used for lookup/replacement.
+     * @return the hashed hologram key used for lookup/replacement, computed once in the constructor.
      */
-    private String getCellHologramKey() {
-        return getFixedHash(this.getCellString());
+    public String getCellHologramKey() {
+        return hologramKey;
     }
 
     /**
      * @return the string "'WORLD_NAME' ('X', 'Z')".
      */
     public String getCellString() {
-        return String.format("%s (%d, %d)", getWorldName(), getX(), getZ());
+        return cellString;
     }
 
     /**
@@ -509,12 +525,12 @@ public class CellUnderAttack extends Cell {
 
         Duration threshold = BannerWarConfig.getTimeUntilNoMoreLives();
 
-        if (!flagTimeElapsed.minus(threshold).isNegative()) {
+        if (getTimeElapsedNanos() >= threshold.toNanos()) {
             Broadcasts.sendErrorMessage(adder, "You cannot add any lives after " + FormatUtil.getFormattedTime(threshold) + "!");
             return false;
         }
 
-        flagTimeLeft = flagTimeLeft.plusSeconds(BannerWarConfig.getFlagLifeTimeIncrease());
+        extendLifetime(BannerWarConfig.getFlagLifeTimeIncrease());
 
         lives++;
         lifeAdditions++;
@@ -559,12 +575,11 @@ public class CellUnderAttack extends Cell {
 
         else {
 
-            int millisPerTick = 50;
-            int remainingBlocks = FlagWarConfig.getTimerBlocks().length - flagPhaseID;
-            Duration phaseDuration = flagTimeLeft.dividedBy(remainingBlocks);
-            long ticks = phaseDuration.toMillis() / millisPerTick;
+            // past the last timer block, e.g. after a life was added, the rest of the lifetime is a single phase.
+            int remainingBlocks = Math.max(1, FlagWarConfig.getTimerBlocks().length - flagPhaseID);
+            long phaseNanos = getTimeLeftNanos() / remainingBlocks;
 
-            flagUpdateTask = scheduler.runLater(this::updateCell, ticks);
+            flagUpdateTask = FlagClock.schedule(flagBaseBlock.getLocation(), this::updateCell, phaseNanos);
         }
     }
 
@@ -573,7 +588,7 @@ public class CellUnderAttack extends Cell {
      * and its timer block is replaced by ancient debris by default.
      */
     private void makeInfernal() {
-        flagTimeLeft = flagTimeLeft.plusSeconds(BannerWarConfig.getInfernalLifeTimeIncrease());
+        extendLifetime(BannerWarConfig.getInfernalLifeTimeIncrease());
         flagTimerBlock.setType(BannerWarConfig.getInfernalWarFlagMaterial());
     }
 
@@ -603,9 +618,9 @@ public class CellUnderAttack extends Cell {
         flagTimerBlock.setType(BannerWarConfig.getInvincibilityMaterial());
         isInvincible = true;
 
-        scheduler.runLater(() -> {
+        FlagClock.schedule(flagBaseBlock.getLocation(), () -> {
             isInvincible = false;
             if (lives > 0) updateFlag();
-        }, BannerWarConfig.getInvincibilityDuration()*20L);
+        }, Duration.ofSeconds(BannerWarConfig.getInvincibilityDuration()).toNanos());
     }
 }
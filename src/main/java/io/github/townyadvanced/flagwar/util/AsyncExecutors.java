@@ -0,0 +1,74 @@
+package io.github.townyadvanced.flagwar.util;
+
+import io.github.townyadvanced.flagwar.FlagWar;
+import io.github.townyadvanced.flagwar.config.BannerWarConfig;
+
+import java.util.logging.Logger;
+
+/**
+ * Holds the {@link BoundedExecutor}s that run blocking work off the server threads,
+ * so that it never lands on the JVM-wide common pool.
+ * <p>
+ * Once {@link #shutdown()} ran, the executors are kept and reject every task, until {@link #start()} is called again
+ * when the plugin enables; a late caller gets a failed future instead of thread pools that nothing would shut down.
+ */
+public final class AsyncExecutors {
+
+    private AsyncExecutors() {}
+
+    /** Holds the time, in milliseconds, that {@link #shutdown()} waits for the queued tasks of each executor. */
+    private static final long SHUTDOWN_TIMEOUT_MILLIS = 5000L;
+
+    /** Holds the {@link BoundedExecutor} that runs database queries. */
+    private static volatile BoundedExecutor database;
+
+    /** Holds the {@link BoundedExecutor} that runs work for and on the data of other plugins, such as computing battle participants. */
+    private static volatile BoundedExecutor integrations;
+
+    /** Creates the executors from the config, unless they are already running. */
+    public static synchronized void start() {
+        if (database != null && !database.isShutdown()) return;
+
+        Logger logger = FlagWar.getInstance().getLogger();
+        boolean virtual = BannerWarConfig.isVirtualThreadsEnabled();
+
+        integrations = new BoundedExecutor("integrations",
+            BannerWarConfig.getExecutorThreads("integrations", 2),
+            BannerWarConfig.getExecutorQueueSize("integrations", 256), virtual, logger);
+
+        database = new BoundedExecutor("database",
+            BannerWarConfig.getExecutorThreads("database", 1),
+            BannerWarConfig.getExecutorQueueSize("database", 1024), virtual, logger);
+    }
+
+    /** Returns the {@link BoundedExecutor} that runs database queries, which rejects every task after {@link #shutdown()}. */
+    public static BoundedExecutor database() {
+        BoundedExecutor executor = database;
+        if (executor != null) return executor;
+
+        start();
+        return database;
+    }
+
+    /** Returns the {@link BoundedExecutor} that runs work for other plugins, which rejects every task after {@link #shutdown()}. */
+    public static BoundedExecutor integrations() {
+        BoundedExecutor executor = integrations;
+        if (executor != null) return executor;
+
+        start();
+        return integrations;
+    }
+
+    /** Stops both executors, waiting for their queued tasks, e.g. pending database writes, to finish. */
+    public static synchronized void shutdown() {
+        if (database == null || database.isShutdown()) return;
+
+        Logger logger = FlagWar.getInstance().getLogger();
+        for (BoundedExecutor executor : new BoundedExecutor[] {database, integrations}) {
+            if (!executor.shutdown(SHUTDOWN_TIMEOUT_MILLIS))
+                logger.warning("The " + executor.getName() + " executor did not finish its queued tasks in time.");
+            if (executor.getRejectedCount() > 0)
+                logger.warning("The " + executor.getName() + " executor rejected " + executor.getRejectedCount() + " tasks.");
+        }
+    }
+}
@@ -63,14 +63,25 @@ public final class BattleUtil {
 
     }
 
+    /**
+     * Packs a pair of {@link TownBlock} coordinates into a single {@code long}, for primitive-keyed lookups.
+     * @param x the X coordinate
+     * @param z the Z coordinate
+     */
+    public static long pack(int x, int z) {
+        return ((long) x << 32) | (z & 0xFFFFFFFFL);
+    }
+
     /**
      * Computes the stage times of a {@link Battle} based on its initial {@link TownBlock} count and a configurable multiplier.
+     * <p>
+     * The count is taken from the stored {@link WorldCoord}s, so no {@link TownBlock} is resolved.
      * @param b the {@link Battle} in question
      */
     public static Map<BattleStage, Duration> computeStageTimes(Battle b) {
         EnumMap<BattleStage, Duration> stageTimes = new EnumMap<>(BattleStage.class);
 
-        int size = b.getInitialTownBlocks().size();
+        int size = b.getInitialTownBlocksAsWorldCoords().size();
 
         stageTimes.put(BattleStage.PRE_FLAG, !b.isCityState() ? Duration.ofMinutes(Math.round(
             30 * BannerWarConfig.getTimeMultiplier(BattleStage.PRE_FLAG)
@@ -0,0 +1,166 @@
+package io.github.townyadvanced.flagwar.util;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+
+/**
+ * A named {@link Executor} with a fixed number of threads and a bounded queue.
+ * <p>
+ * Tasks submitted while the queue is full are rejected and counted, instead of piling up without bound.
+ * {@link #run(Runnable)} and {@link #supply(Supplier)} turn a rejection into a failed {@link CompletableFuture},
+ * so callers never have to catch it.
+ */
+public final class BoundedExecutor implements Executor {
+
+    /** Holds the name of this executor, which prefixes the names of its threads. */
+    private final String NAME;
+
+    /** Holds the {@link ThreadPoolExecutor} that runs the tasks. */
+    private final ThreadPoolExecutor POOL;
+
+    /** Holds the number of tasks rejected so far. */
+    private final AtomicLong REJECTED = new AtomicLong();
+
+    /** Holds the {@link Logger} to which rejections are reported. */
+    private final Logger LOGGER;
+
+    /**
+     * Constructs a {@link BoundedExecutor}.
+     * @param name the name of the executor
+     * @param threads the number of threads
+     * @param queueSize the number of tasks that may wait for a thread
+     * @param virtual whether to run the tasks on virtual threads, if the runtime supports them
+     * @param logger the {@link Logger} to which rejections are reported
+     */
+    public BoundedExecutor(String name, int threads, int queueSize, boolean virtual, Logger logger) {
+        this.NAME = name;
+        this.LOGGER = logger;
+
+        ThreadFactory factory = virtual ? virtualThreadFactory(name) : null;
+        if (virtual && factory == null)
+            logger.warning("Virtual threads need Java 21 or newer; the " + name + " executor uses platform threads.");
+
+        int size = Math.max(1, threads);
+        POOL = new ThreadPoolExecutor(size, size, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(Math.max(1, queueSize)),
+            factory != null ? factory : platformThreadFactory(name),
+            (task, pool) -> reject());
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        POOL.execute(task);
+    }
+
+    /**
+     * Runs the task on this executor.
+     * @param task the task
+     * @return a {@link CompletableFuture} completed once the task ran, or failed if it was rejected
+     */
+    public CompletableFuture<Void> run(Runnable task) {
+        try {
+            return CompletableFuture.runAsync(task, this);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Computes a value on this executor.
+     * @param supplier the supplier of the value
+     * @param <T> the type of the value
+     * @return a {@link CompletableFuture} of the value, failed if the task was rejected
+     */
+    public <T> CompletableFuture<T> supply(Supplier<T> supplier) {
+        try {
+            return CompletableFuture.supplyAsync(supplier, this);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /** Returns the name of this executor. */
+    public String getName() {
+        return NAME;
+    }
+
+    /** Returns the number of tasks waiting for a thread. */
+    public int getQueueDepth() {
+        return POOL.getQueue().size();
+    }
+
+    /** Returns the number of tasks being run. */
+    public int getActiveCount() {
+        return POOL.getActiveCount();
+    }
+
+    /** Returns the number of tasks rejected so far. */
+    public long getRejectedCount() {
+        return REJECTED.get();
+    }
+
+    /** Returns whether this executor was shut down, and so rejects every task. */
+    public boolean isShutdown() {
+        return POOL.isShutdown();
+    }
+
+    /**
+     * Stops accepting tasks, and waits for the queued ones to finish.
+     * @param timeoutMillis the longest time to wait, in milliseconds
+     * @return whether every queued task finished in time
+     */
+    public boolean shutdown(long timeoutMillis) {
+        POOL.shutdown();
+        try {
+            return POOL.awaitTermination(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void reject() {
+        long count = REJECTED.incrementAndGet();
+
+        // reported at every power of two, so that a flood of rejections does not flood the log as well.
+        if (Long.bitCount(count) == 1)
+            LOGGER.warning("The " + NAME + " executor rejected a task; " + count + " rejected so far, "
+                + getQueueDepth() + " queued.");
+
+        throw new RejectedExecutionException("The " + NAME + " executor is saturated or shut down");
+    }
+
+    private static ThreadFactory platformThreadFactory(String name) {
+        AtomicInteger count = new AtomicInteger();
+        return task -> {
+            Thread thread = new Thread(task, "BannerWar-" + name + "-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Returns a {@link ThreadFactory} of virtual threads, or {@code null} if the runtime does not support them.
+     * Looked up reflectively, as the plugin is compiled for Java 17.
+     * @param name the name of the executor
+     */
+    private static ThreadFactory virtualThreadFactory(String name) {
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            builder = builderClass.getMethod("name", String.class, long.class).invoke(builder, "BannerWar-" + name + "-", 1L);
+            return (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+}
@@ -6,16 +6,16 @@ import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
 import org.bukkit.entity.Player;
 
-import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
 /** A class that contains various functions that prepares messages to be broadcast to one or all players. */
 public final class Broadcasts {
 
     /** Holds a {@link Map} of every player's most recent message sent to prevent spamming. */
-    private static final Map<UUID, String> LAST_MESSAGES = new HashMap<>();
+    private static final Map<UUID, String> LAST_MESSAGES = new ConcurrentHashMap<>();
 
     private Broadcasts() {}
 
@@ -180,6 +180,6 @@ public final class Broadcasts {
      * @param id the specified key
      */
     private static void resetLastMessage(UUID id) {
-        Bukkit.getScheduler().runTaskLater(FlagWar.getInstance(), () -> LAST_MESSAGES.remove(id), 100);
+        FlagWar.getFlagWar().getScheduler().runLater(() -> LAST_MESSAGES.remove(id), 100);
     }
 }
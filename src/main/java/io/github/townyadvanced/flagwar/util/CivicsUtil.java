@@ -6,7 +6,6 @@ import com.palmergames.bukkit.towny.object.Resident;
 import com.palmergames.bukkit.towny.object.Town;
 import io.github.townyadvanced.flagwar.FlagWar;
 import io.github.townyadvanced.flagwar.config.BannerWarConfig;
-import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
 import org.bukkit.plugin.Plugin;
 import org.flintstqne.townyCivics.CivTech.CivTech;
@@ -72,7 +71,7 @@ public final class CivicsUtil {
 
     /** Initialization steps such as getting the {@link #api} and registering the {@link CivTech}s.  */
     public static void init() {
-        Bukkit.getScheduler().runTaskLater(PLUGIN, () -> {
+        FlagWar.getFlagWar().getScheduler().runLater(() -> {
             api = TownyCivicsAPI.getInstance();
             registerCivTechs();
         }, 1);
@@ -0,0 +1,100 @@
+package io.github.townyadvanced.flagwar.util;
+
+import com.palmergames.bukkit.towny.scheduling.ScheduledTask;
+import io.github.townyadvanced.flagwar.FlagWar;
+import io.github.townyadvanced.flagwar.config.FlagWarConfig;
+import io.github.townyadvanced.flagwar.objects.CellUnderAttack;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Refreshes the timer line of the hologram of every tracked {@link CellUnderAttack} in a single pass.
+ * <p>
+ * A timer is only formatted when the whole second it shows changes, and only pushed to its hologram when the
+ * formatted text differs from the one shown. The refresh task only runs while a flag is tracked.
+ */
+public final class HologramUpdater {
+
+    private HologramUpdater() {}
+
+    /** Holds the number of ticks between refreshes. */
+    private static final long REFRESH_TICKS = 5L;
+
+    /** Holds the {@link Shown} state of the timer of every tracked {@link CellUnderAttack}. */
+    private static final Map<CellUnderAttack, Shown> SHOWN = new ConcurrentHashMap<>();
+
+    /** Holds the repeating task that refreshes the timers, or {@code null} while no flag is tracked. */
+    private static ScheduledTask refreshTask;
+
+    /** Holds what the timer line of a hologram currently shows. */
+    private static final class Shown {
+
+        /** Holds the whole seconds left that the timer line was last formatted for. */
+        private long seconds;
+
+        /** Holds the text of the timer line. */
+        private String text;
+
+        private Shown(long seconds, String text) {
+            this.seconds = seconds;
+            this.text = text;
+        }
+    }
+
+    /**
+     * Starts refreshing the timer of the {@link CellUnderAttack}, whose hologram was just drawn.
+     * @param cell the {@link CellUnderAttack}
+     */
+    public static synchronized void track(CellUnderAttack cell) {
+        long seconds = secondsLeft(cell);
+        SHOWN.put(cell, new Shown(seconds, format(seconds)));
+
+        if (refreshTask == null)
+            refreshTask = FlagWar.getFlagWar().getScheduler().runRepeating(HologramUpdater::refresh, REFRESH_TICKS, REFRESH_TICKS);
+    }
+
+    /**
+     * Stops refreshing the timer of the {@link CellUnderAttack}.
+     * @param cell the {@link CellUnderAttack}
+     */
+    public static synchronized void untrack(CellUnderAttack cell) {
+        if (SHOWN.remove(cell) != null && SHOWN.isEmpty()) cancelRefreshTask();
+    }
+
+    /** Stops refreshing every timer. */
+    public static synchronized void stop() {
+        SHOWN.clear();
+        cancelRefreshTask();
+    }
+
+    /** Formats the timer of every tracked flag whose shown second changed, and pushes the lines that differ. */
+    private static void refresh() {
+        for (var entry : SHOWN.entrySet()) {
+            Shown shown = entry.getValue();
+            long seconds = secondsLeft(entry.getKey());
+            if (seconds == shown.seconds) continue;
+
+            shown.seconds = seconds;
+            String text = format(seconds);
+            if (text.equals(shown.text)) continue;
+
+            shown.text = text;
+            HologramUtil.setHologramTimerLine(entry.getKey().getCellHologramKey(), text);
+        }
+    }
+
+    private static long secondsLeft(CellUnderAttack cell) {
+        return Math.max(0L, cell.getTimeLeftNanos() / 1_000_000_000L);
+    }
+
+    private static String format(long seconds) {
+        return FormatUtil.time(Duration.ofSeconds(seconds), FlagWarConfig.getTimerText());
+    }
+
+    private static void cancelRefreshTask() {
+        if (refreshTask != null) refreshTask.cancel();
+        refreshTask = null;
+    }
+}
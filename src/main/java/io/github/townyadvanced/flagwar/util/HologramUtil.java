@@ -16,20 +16,17 @@
 
 package io.github.townyadvanced.flagwar.util;
 
-import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
-import eu.decentsoftware.holograms.api.DHAPI;
-import eu.decentsoftware.holograms.api.holograms.Hologram;
-import io.github.townyadvanced.flagwar.FlagWar;
 import io.github.townyadvanced.flagwar.config.FlagWarConfig;
+import io.github.townyadvanced.flagwar.hologram.HologramProvider;
+import io.github.townyadvanced.flagwar.hologram.HologramProviders;
 import org.bukkit.Location;
-import org.bukkit.Material;
-import org.bukkit.plugin.Plugin;
-import org.jetbrains.annotations.ApiStatus;
 
 import java.time.Duration;
-import java.util.List;
-import java.util.Map;
 
+/**
+ * Draws, updates and destroys the holograms of flags, through the current {@link HologramProvider}.
+ * See {@link HologramProviders}.
+ */
 public final class HologramUtil {
 
     /** The value to add to the x and z Location of a Hologram. */
@@ -51,62 +48,13 @@ public final class HologramUtil {
     public static void drawHologram(final String name,
                                     final Location location,
                                     final Duration lifeTime) {
-        List<Map.Entry<String, String>> settings = FlagWarConfig.getHologramSettings();
-
-        // DecentHolograms
-        Plugin decentHolograms = FlagWar.getInstance().getServer().getPluginManager()
-            .getPlugin("DecentHolograms");
-        if (decentHolograms != null && decentHolograms.isEnabled()) {
-            drawDecentHolograms(name, location, settings, lifeTime);
-        } else {
+        HologramProvider provider = HologramProviders.get();
+        if (!provider.isFunctional()) {
             Messaging.debug("Tried to draw a hologram (%s), but no supported hologram plugins loaded.", name);
-        }
-    }
-
-    /**
-     * Draw Hologram using DecentHolograms ({@link DHAPI}).
-     *
-     * @param name Name of the hologram (typically, the Cell String)
-     * @param location Location to initially spawn the hologram.
-     * @param settings Map of 'holograms.lines' from the config.
-     * @param lifeTime (Remaining) Duration of flag's timer.
-     */
-    @ApiStatus.Experimental
-    @SuppressFBWarnings("DLS_DEAD_LOCAL_STORE")
-    private static void drawDecentHolograms(final String name,
-                                           final Location location,
-                                           final List<Map.Entry<String, String>> settings,
-                                           final Duration lifeTime) {
-
-        if (DHAPI.getHologram(name) != null) {
-            Messaging.debug("Attempted to draw a pre-existing hologram at: %s", name);
-            Messaging.debug("This should be destroyed and re-created, or fetched and updated.");
             return;
         }
-        // Create Invisible
-        Hologram hologram = DHAPI.createHologram(name, location.add(HOR_OFFSET, VER_OFFSET, HOR_OFFSET), false);
-        hologram.setDefaultVisibleState(false);
-
-        // Add Lines
-        for (Map.Entry<String, String> holoSetting : settings) {
-            String type = holoSetting.getKey();
-            String data = holoSetting.getValue();
-
-            switch (type) {
-                case "item" -> {
-                    Material material = Material.matchMaterial(data);
-                    if (material != null) {
-                        DHAPI.addHologramLine(hologram, material);
-                    }
-                }
-                case "text" -> DHAPI.addHologramLine(hologram, data);
-                case "timer" -> DHAPI.addHologramLine(hologram, FormatUtil.time(lifeTime, data));
-                default -> DHAPI.addHologramLine(hologram, "");
-            }
-        }
-
-        //Set Visible
-        hologram.setDefaultVisibleState(true);
+        provider.draw(name, location.clone().add(HOR_OFFSET, VER_OFFSET, HOR_OFFSET),
+            FlagWarConfig.getHologramSettings(), lifeTime);
     }
 
     /**
@@ -114,35 +62,15 @@ public final class HologramUtil {
      * @param name Hologram name (Cell String)
      */
     public static void destroyHologram(final String name) {
-        Plugin decentHolograms = FlagWar.getInstance().getServer().getPluginManager()
-            .getPlugin("DecentHolograms");
-        if (decentHolograms != null && decentHolograms.isEnabled()) {
-            Hologram hologram = DHAPI.getHologram(name);
-            if (hologram != null) {
-                hologram.destroy();
-            }
-        } else {
-            Messaging.debug("Tried to destroy a hologram (%s), but no supported plugins are in use.", name);
-        }
+        HologramProviders.get().destroy(name);
     }
 
     /**
-     * Set's the Hologram's timer line text - which is assumed to be line index 2.
+     * Set's the Hologram's timer line to already formatted text. See {@link HologramUpdater}.
      * @param name Hologram name (Cell String)
-     * @param lifeTime Flag duration
+     * @param text the formatted timer text
      */
-    public static void updateHologramTimer(final String name, final Duration lifeTime) {
-        Plugin decentHolograms = FlagWar.getInstance().getServer().getPluginManager()
-            .getPlugin("DecentHolograms");
-        if (decentHolograms != null && decentHolograms.isEnabled()) {
-            Hologram hologram = DHAPI.getHologram(name);
-
-            if (hologram != null) {
-                DHAPI.setHologramLine(hologram, FlagWarConfig.getHologramTimerLineIndex(),
-                        FormatUtil.time(lifeTime, FlagWarConfig.getTimerText()));
-            }
-        } else {
-            Messaging.debug("Tried to update a hologram's timer (%s), but no supported plugins are in use.", name);
-        }
+    public static void setHologramTimerLine(final String name, final String text) {
+        HologramProviders.get().setLine(name, FlagWarConfig.getHologramTimerLineIndex(), text);
     }
 }
@@ -0,0 +1,185 @@
+package io.github.townyadvanced.flagwar.util;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * A minimal open-addressing hash map from primitive {@code long} keys to objects.
+ * <p>
+ * Lookups neither box the key nor allocate, which makes it suitable for hot paths keyed by
+ * packed coordinates (see {@link BattleUtil#pack(int, int)}). Not thread-safe.
+ * @param <V> the value type
+ */
+public final class LongObjectMap<V> {
+
+    /** Holds the default initial capacity; always a power of two. */
+    private static final int DEFAULT_CAPACITY = 16;
+
+    /** Holds the keys of every slot. */
+    private long[] keys;
+
+    /** Holds the values of every slot; a {@code null} value marks a free slot. */
+    private Object[] values;
+
+    /** Holds the number of occupied slots. */
+    private int size;
+
+    /** Constructs an empty {@link LongObjectMap}. */
+    public LongObjectMap() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructs an empty {@link LongObjectMap} able to hold the expected number of entries without resizing.
+     * @param expected the expected number of entries
+     */
+    public LongObjectMap(int expected) {
+        int capacity = DEFAULT_CAPACITY;
+        while (capacity * 3 / 4 < expected) capacity <<= 1;
+        keys = new long[capacity];
+        values = new Object[capacity];
+    }
+
+    /**
+     * Constructs a {@link LongObjectMap} holding the same entries as the other one, e.g. for copy-on-write publication.
+     * @param other the {@link LongObjectMap} to copy
+     */
+    public LongObjectMap(LongObjectMap<? extends V> other) {
+        keys = other.keys.clone();
+        values = other.values.clone();
+        size = other.size;
+    }
+
+    /** Returns the number of entries in this map. */
+    public int size() {
+        return size;
+    }
+
+    /** Returns whether this map has no entries. */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns the value mapped to the key, or {@code null}.
+     * @param key the key
+     */
+    @SuppressWarnings("unchecked")
+    public V get(long key) {
+        int mask = keys.length - 1;
+        for (int i = mix(key) & mask; values[i] != null; i = (i + 1) & mask)
+            if (keys[i] == key) return (V) values[i];
+        return null;
+    }
+
+    /**
+     * Returns whether the key is mapped to a value.
+     * @param key the key
+     */
+    public boolean containsKey(long key) {
+        return get(key) != null;
+    }
+
+    /**
+     * Maps the key to a non-null value, and returns the previous value, or {@code null}.
+     * @param key the key
+     * @param value the value
+     */
+    @SuppressWarnings("unchecked")
+    public V put(long key, V value) {
+        if (value == null) throw new IllegalArgumentException("LongObjectMap does not accept null values");
+
+        int mask = keys.length - 1;
+        int i = mix(key) & mask;
+        for (; values[i] != null; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                V old = (V) values[i];
+                values[i] = value;
+                return old;
+            }
+        }
+
+        keys[i] = key;
+        values[i] = value;
+        if (++size > keys.length * 3 / 4) resize(keys.length << 1);
+        return null;
+    }
+
+    /**
+     * Removes the mapping of the key, and returns the removed value, or {@code null}.
+     * @param key the key
+     */
+    @SuppressWarnings("unchecked")
+    public V remove(long key) {
+        int mask = keys.length - 1;
+        int i = mix(key) & mask;
+        for (; values[i] != null; i = (i + 1) & mask) {
+            if (keys[i] != key) continue;
+
+            V old = (V) values[i];
+            values[i] = null;
+            size--;
+
+            // backward-shift the rest of the probe run so lookups never stop early.
+            for (int j = (i + 1) & mask; values[j] != null; j = (j + 1) & mask) {
+                int home = mix(keys[j]) & mask;
+                if (((j - home) & mask) >= ((j - i) & mask)) {
+                    keys[i] = keys[j];
+                    values[i] = values[j];
+                    values[j] = null;
+                    i = j;
+                }
+            }
+            return old;
+        }
+        return null;
+    }
+
+    /**
+     * Removes the mapping of the key only if it is currently mapped to the specified value.
+     * @param key the key
+     * @param value the expected value
+     * @return whether the mapping was removed
+     */
+    public boolean remove(long key, V value) {
+        if (get(key) != value) return false;
+        remove(key);
+        return true;
+    }
+
+    /** Removes every entry of this map. */
+    public void clear() {
+        Arrays.fill(values, null);
+        size = 0;
+    }
+
+    /**
+     * Performs the action on every value of this map.
+     * @param action the action
+     */
+    @SuppressWarnings("unchecked")
+    public void forEachValue(Consumer<? super V> action) {
+        for (Object v : values) if (v != null) action.accept((V) v);
+    }
+
+    private void resize(int capacity) {
+        long[] oldKeys = keys;
+        Object[] oldValues = values;
+        keys = new long[capacity];
+        values = new Object[capacity];
+
+        int mask = capacity - 1;
+        for (int j = 0; j < oldKeys.length; j++) {
+            if (oldValues[j] == null) continue;
+            int i = mix(oldKeys[j]) & mask;
+            while (values[i] != null) i = (i + 1) & mask;
+            keys[i] = oldKeys[j];
+            values[i] = oldValues[j];
+        }
+    }
+
+    private static int mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
@@ -20,8 +20,8 @@ import io.github.townyadvanced.flagwar.BannerWarAPI;
 import io.github.townyadvanced.flagwar.FlagWar;
 import io.github.townyadvanced.flagwar.util.BattleUtil;
 import io.github.townyadvanced.flagwar.util.Broadcasts;
-import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
+import org.bukkit.Location;
 import org.bukkit.World;
 import org.bukkit.entity.Entity;
 import org.bukkit.entity.Item;
@@ -178,7 +178,7 @@ public final class WorldEditService {
      * @param world the world where the entities are retrieved
      */
     private static void unSuffocateNearbyEntities(BoundingBox box, World world) {
-        Bukkit.getScheduler().runTask(FlagWar.getInstance(), () -> {
+        FlagWar.getFlagWar().getScheduler().run(centerOf(box, world), () -> {
             var livingEntities = world.getNearbyEntities(box)
                 .stream().filter(LivingEntity.class::isInstance).toList();
 
@@ -197,8 +197,17 @@ public final class WorldEditService {
      * @param world the world where the items are deleted
      */
     private static void deleteItems(BoundingBox box, World world) {
-        Bukkit.getScheduler().runTask(FlagWar.getInstance(), () ->
+        FlagWar.getFlagWar().getScheduler().run(centerOf(box, world), () ->
              world.getNearbyEntities(box).stream().filter(Item.class::isInstance).forEach(Entity::remove)
         );
     }
+
+    /**
+     * Returns the {@link Location} at the center of the bounding box, whose region owns the entity work done in it.
+     * @param box the bounding box
+     * @param world the world of the bounding box
+     */
+    private static Location centerOf(BoundingBox box, World world) {
+        return box.getCenter().toLocation(world);
+    }
 }